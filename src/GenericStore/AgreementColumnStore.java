@@ -0,0 +1,185 @@
+package GenericStore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores priced agreements for reporting as columns in direct (off-heap) ByteBuffers instead of RentalAgreement
+ * objects, so hundreds of millions of rows can be aggregated without filling the heap.
+ * Rows are kept in fixed size chunks, so growing the store never copies existing rows and no single buffer gets near
+ * the 2GB ByteBuffer limit. Aggregations are plain loops over one or two columns at a time.
+ * Not thread safe, appends and aggregations should happen on the same thread.
+ */
+public class AgreementColumnStore {
+    private static final int DEFAULT_CHUNK_ROWS = 1 << 20;
+
+    private final int chunkRows;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private long rowCount;
+
+    public AgreementColumnStore() {
+        this(DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * @param chunkRows - number of rows allocated at a time
+     */
+    public AgreementColumnStore(int chunkRows) {
+        if (chunkRows < 1 || chunkRows > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Chunk rows must be between 1 and " + Integer.MAX_VALUE / Long.BYTES + ".");
+        }
+        this.chunkRows = chunkRows;
+    }
+
+    /**
+     * Adds a row for an agreement
+     * @param agreement - the agreement to store
+     */
+    public void append(RentalAgreement agreement) {
+        append(agreement.getTool(), EpochDayUtil.parse(agreement.getCheckoutDate()), agreement.getRentalDays(),
+                agreement.getChargeableDays(), Math.round(agreement.getDiscountAmount() * 100),
+                Math.round(agreement.getFinalCharge() * 100));
+    }
+
+    /**
+     * Adds a row from already priced values, e.g. from RentalPricer
+     * @param tool - the rented tool
+     * @param checkoutDay - checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is rented
+     * @param chargeableDays - the amount of days that were charged
+     * @param discountCents - discount amount in cents
+     * @param finalChargeCents - final charge in cents
+     */
+    public void append(Tool tool, int checkoutDay, int rentalDays, int chargeableDays, long discountCents,
+                       long finalChargeCents) {
+        int row = (int) (rowCount % chunkRows);
+        if (row == 0) {
+            chunks.add(new Chunk(chunkRows));
+        }
+        Chunk chunk = chunks.get(chunks.size() - 1);
+        chunk.toolType.put(row, (byte) tool.getTypeIndex());
+        chunk.toolBrand.put(row, (byte) tool.getBrandIndex());
+        chunk.checkoutDay.putInt(row * Integer.BYTES, checkoutDay);
+        chunk.rentalDays.putInt(row * Integer.BYTES, rentalDays);
+        chunk.chargeableDays.putInt(row * Integer.BYTES, chargeableDays);
+        chunk.discountCents.putLong(row * Long.BYTES, discountCents);
+        chunk.finalChargeCents.putLong(row * Long.BYTES, finalChargeCents);
+        chunk.size = row + 1;
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Sums the final charge of every row by tool type
+     * @return - long array of cents indexed by Tool.getTypeIndex()
+     */
+    public long[] revenueByToolType() {
+        long[] revenue = new long[Tool.TYPE_COUNT];
+        for (Chunk chunk : chunks) {
+            for (int row = 0; row < chunk.size; row++) {
+                revenue[chunk.toolType.get(row)] += chunk.finalChargeCents.getLong(row * Long.BYTES);
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Sums the final charge of every row by tool brand
+     * @return - long array of cents indexed by Tool.getBrandIndex()
+     */
+    public long[] revenueByBrand() {
+        long[] revenue = new long[Tool.BRAND_COUNT];
+        for (Chunk chunk : chunks) {
+            for (int row = 0; row < chunk.size; row++) {
+                revenue[chunk.toolBrand.get(row)] += chunk.finalChargeCents.getLong(row * Long.BYTES);
+            }
+        }
+        return revenue;
+    }
+
+    /**
+     * Sums the discount amount of every row
+     * @return - long representing the total discount in cents
+     */
+    public long totalDiscountCents() {
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            for (int row = 0; row < chunk.size; row++) {
+                total += chunk.discountCents.getLong(row * Long.BYTES);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sums the rental days and charged days of every row by the month of its checkout date
+     * @param year - full year to report on
+     * @return - long array of 12 months by 2 values, [month][0] rental days and [month][1] chargeable days
+     */
+    public long[][] utilizationByMonth(int year) {
+        //epoch day each month starts on, plus the start of the next year
+        int[] monthStarts = new int[13];
+        for (int month = 0; month < 12; month++) {
+            monthStarts[month] = EpochDayUtil.epochDay(year, month + 1, 1);
+        }
+        monthStarts[12] = EpochDayUtil.epochDay(year + 1, 1, 1);
+
+        long[][] utilization = new long[12][2];
+        for (Chunk chunk : chunks) {
+            for (int row = 0; row < chunk.size; row++) {
+                int checkoutDay = chunk.checkoutDay.getInt(row * Integer.BYTES);
+                if (checkoutDay < monthStarts[0] || checkoutDay >= monthStarts[12]) {
+                    continue;
+                }
+                int month = 0;
+                while (checkoutDay >= monthStarts[month + 1]) {
+                    month++;
+                }
+                utilization[month][0] += chunk.rentalDays.getInt(row * Integer.BYTES);
+                utilization[month][1] += chunk.chargeableDays.getInt(row * Integer.BYTES);
+            }
+        }
+        return utilization;
+    }
+
+    /**
+     * Drops every row. The off-heap memory is released once the garbage collector clears the dropped buffers
+     */
+    public void clear() {
+        chunks.clear();
+        rowCount = 0;
+    }
+
+    /**
+     * One block of rows, a direct ByteBuffer per column
+     */
+    private static final class Chunk {
+        private final ByteBuffer toolType;
+        private final ByteBuffer toolBrand;
+        private final ByteBuffer checkoutDay;
+        private final ByteBuffer rentalDays;
+        private final ByteBuffer chargeableDays;
+        private final ByteBuffer discountCents;
+        private final ByteBuffer finalChargeCents;
+        private int size;
+
+        private Chunk(int rows) {
+            toolType = column(rows);
+            toolBrand = column(rows);
+            checkoutDay = column(rows * Integer.BYTES);
+            rentalDays = column(rows * Integer.BYTES);
+            chargeableDays = column(rows * Integer.BYTES);
+            discountCents = column(rows * Long.BYTES);
+            finalChargeCents = column(rows * Long.BYTES);
+        }
+
+        private static ByteBuffer column(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package GenericStore;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts weekend days, holidays and chargeable days for a whole batch of rentals at once, e.g. when re-pricing
+ * stored agreements. Rentals are passed as parallel arrays so the loop runs over primitives only.
+ * A batch is counted under one PricingPolicy snapshot, which supplies the charge flags and the holidays.
+ * Weekend days use the same arithmetic as EpochDayUtil without branches. Holidays are looked up in a table of
+ * running holiday counts of the policy covering 2000 through 2102, which turns the count into two array reads. Rentals
+ * outside the table use PricingPolicy.holidays instead, so the results always match the single rental path.
+ */
+public final class BatchDayCounter {
+    //bits of the tool flags array
+    public static final int WEEKEND_CHARGE = 1;
+    public static final int HOLIDAY_CHARGE = 2;
+
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2102;
+    private static final int TABLE_START = EpochDayUtil.epochDay(FIRST_YEAR, 1, 1);
+    private static final int TABLE_END = EpochDayUtil.epochDay(LAST_YEAR + 1, 1, 1);
+
+    //Tables of the last few holiday sets counted, newest first. A table only depends on the holidays, so a reload that
+    //changes rates reuses it, and switching back to an earlier policy does not rebuild it
+    private static final int CACHED_TABLES = 4;
+    private static final AtomicReference<HolidayTable[]> HOLIDAY_TABLES = new AtomicReference<>(new HolidayTable[0]);
+
+    private BatchDayCounter() {
+    }
+
+    /**
+     * Returns the tool flags used by count() for a tool
+     * @param policy - the pricing policy the batch is counted under
+     * @param tool - the tool being rented
+     * @return - int with WEEKEND_CHARGE and HOLIDAY_CHARGE set as the tool charges for them
+     */
+    public static int toolFlags(PricingPolicy policy, Tool tool) {
+        return (policy.weekendCharge(tool) ? WEEKEND_CHARGE : 0) | (policy.holidayCharge(tool) ? HOLIDAY_CHARGE : 0);
+    }
+
+    /**
+     * Counts the days of each rental in the batch. Index i of every array describes the same rental
+     * @param policy - the pricing policy the batch is counted under, the same one passed to toolFlags()
+     * @param checkoutDays - checkout dates as epoch days
+     * @param rentalDays - the amount of days each tool is being rented
+     * @param toolFlags - flags from toolFlags() for the tool of each rental
+     * @param weekendDaysOut - receives the number of weekend days of each rental
+     * @param holidaysOut - receives the number of holidays of each rental
+     * @param chargeableDaysOut - receives the number of chargeable days of each rental
+     * @param length - number of rentals in the batch
+     */
+    public static void count(PricingPolicy policy, int[] checkoutDays, int[] rentalDays, int[] toolFlags,
+                             int[] weekendDaysOut, int[] holidaysOut, int[] chargeableDaysOut, int length) {
+        int[] table = holidayTable(policy);
+        for (int i = 0; i < length; i++) {
+            int checkoutDay = checkoutDays[i];
+            int days = rentalDays[i];
+            int returnDay = checkoutDay + days;
+
+            int dayOfWeek = Math.floorMod(checkoutDay + 4, 7) + 1;
+            int daysRemaining = days % 7;
+            int weekendDays = (days / 7) * 2
+                    - (dayOfWeek == EpochDayUtil.SATURDAY && daysRemaining != 0 ? 1 : 0)
+                    + (daysRemaining != 0 && daysRemaining + dayOfWeek > 6 ? 1 : 0)
+                    + (daysRemaining != 0 && daysRemaining + dayOfWeek > 7 ? 1 : 0);
+
+            int holidays;
+            if (checkoutDay >= TABLE_START && returnDay < TABLE_END) {
+                holidays = table[returnDay - TABLE_START] - table[checkoutDay - TABLE_START];
+            } else {
+                holidays = policy.holidays(checkoutDay, days);
+            }
+
+            int flags = toolFlags[i];
+            weekendDaysOut[i] = weekendDays;
+            holidaysOut[i] = holidays;
+            chargeableDaysOut[i] = days
+                    - ((flags & WEEKEND_CHARGE) != 0 ? 0 : weekendDays)
+                    - ((flags & HOLIDAY_CHARGE) != 0 ? 0 : holidays);
+        }
+    }
+
+    private static int[] holidayTable(PricingPolicy policy) {
+        HolidayTable[] tables = HOLIDAY_TABLES.get();
+        for (HolidayTable table : tables) {
+            if (table.policy == policy || table.policy.sameHolidays(policy)) {
+                return table.counts;
+            }
+        }
+        HolidayTable table = new HolidayTable(policy);
+        //a table lost to a concurrent update is only built again, never wrong
+        HolidayTable[] next = new HolidayTable[Math.min(tables.length + 1, CACHED_TABLES)];
+        next[0] = table;
+        System.arraycopy(tables, 0, next, 1, next.length - 1);
+        HOLIDAY_TABLES.set(next);
+        return table.counts;
+    }
+
+    private static final class HolidayTable {
+        private final PricingPolicy policy;
+        //For every day in the table, the number of holidays since 1/1/2000 up to and including the day
+        private final int[] counts;
+
+        private HolidayTable(PricingPolicy policy) {
+            this.policy = policy;
+            this.counts = new int[TABLE_END - TABLE_START];
+            int holidays = 0;
+            for (int day = TABLE_START; day < TABLE_END; day++) {
+                if (policy.isHoliday(day)) {
+                    holidays++;
+                }
+                counts[day - TABLE_START] = holidays;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package GenericStore;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of booked units per tool type and day, over a fixed range of epoch days (2000 through 2099 by default).
+ * Each tool type keeps two Fenwick trees over the range, so booking a rental and asking how many unit days are booked
+ * in any window both take a logarithmic number of steps in the size of the range, however many bookings have been
+ * added. Memory is fixed at two longs per day and tool type.
+ * Each tool type has its own lock, like ToolInventory, so bookings of different tool types never contend.
+ */
+public class BookingDemand {
+    private final int firstDay;
+    private final int dayCount;
+    private final TypeDemand[] types = new TypeDemand[Tool.TYPE_COUNT];
+
+    public BookingDemand() {
+        this(EpochDayUtil.epochDay(2000, 1, 1), EpochDayUtil.epochDay(2100, 1, 1));
+    }
+
+    /**
+     * @param firstDay - first epoch day that can be booked
+     * @param endDay - epoch day after the last day that can be booked
+     */
+    public BookingDemand(int firstDay, int endDay) {
+        if (endDay <= firstDay) {
+            throw new IllegalArgumentException("The range of days must not be empty.");
+        }
+        this.firstDay = firstDay;
+        this.dayCount = endDay - firstDay;
+        for (int type = 0; type < types.length; type++) {
+            types[type] = new TypeDemand(dayCount);
+        }
+    }
+
+    /**
+     * Counts a unit of the tool as booked for the days [checkoutDay, checkoutDay + rentalDays). Days outside the
+     * range are ignored
+     * @param tool - the tool being rented
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     */
+    public void book(Tool tool, int checkoutDay, int rentalDays) {
+        add(tool.getTypeIndex(), checkoutDay, checkoutDay + rentalDays, 1);
+    }
+
+    /**
+     * Removes a booking added with book(), e.g. when a rental is cancelled
+     * @param tool - the tool being rented
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     */
+    public void cancel(Tool tool, int checkoutDay, int rentalDays) {
+        add(tool.getTypeIndex(), checkoutDay, checkoutDay + rentalDays, -1);
+    }
+
+    /**
+     * Sums the booked units of a tool type over the days [fromDay, toDay)
+     * @param typeIndex - index from Tool.getTypeIndex()
+     * @param fromDay - first epoch day of the window
+     * @param toDay - epoch day after the last day of the window
+     * @return - long representing the booked unit days in the window
+     */
+    public long bookedUnitDays(int typeIndex, int fromDay, int toDay) {
+        int from = clamp(fromDay);
+        int to = clamp(toDay);
+        if (from >= to) {
+            return 0;
+        }
+        TypeDemand demand = types[typeIndex];
+        demand.lock.readLock().lock();
+        try {
+            return demand.prefixSum(to) - demand.prefixSum(from);
+        } finally {
+            demand.lock.readLock().unlock();
+        }
+    }
+
+    private void add(int typeIndex, int fromDay, int toDay, long units) {
+        int from = clamp(fromDay);
+        int to = clamp(toDay);
+        if (from >= to) {
+            return;
+        }
+        TypeDemand demand = types[typeIndex];
+        demand.lock.writeLock().lock();
+        try {
+            demand.addRange(from, to, units);
+        } finally {
+            demand.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return - int representing the position of the day in the range, clamped to [0, dayCount]
+     */
+    private int clamp(int day) {
+        return Math.max(0, Math.min(dayCount, day - firstDay));
+    }
+
+    /**
+     * Range update, range sum Fenwick trees for one tool type. With d(i) the change added from position i onwards,
+     * the sum of the first n days is n * sum(d) - sum(d(i) * i), kept as the two trees below
+     */
+    private static final class TypeDemand {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final long[] changes;
+        private final long[] weightedChanges;
+
+        private TypeDemand(int dayCount) {
+            this.changes = new long[dayCount + 1];
+            this.weightedChanges = new long[dayCount + 1];
+        }
+
+        /**
+         * Adds units to every day at positions [from, to)
+         */
+        private void addRange(int from, int to, long units) {
+            addPoint(from, units);
+            addPoint(to, -units);
+        }
+
+        private void addPoint(int position, long units) {
+            //trees are indexed from 1
+            for (int i = position + 1; i < changes.length; i += i & -i) {
+                changes[i] += units;
+                weightedChanges[i] += units * position;
+            }
+        }
+
+        /**
+         * @return - long representing the sum of the first count days
+         */
+        private long prefixSum(int count) {
+            long change = 0;
+            long weighted = 0;
+            for (int i = count; i > 0; i -= i & -i) {
+                change += changes[i];
+                weighted += weightedChanges[i];
+            }
+            return change * count - weighted;
+        }
+    }
+}
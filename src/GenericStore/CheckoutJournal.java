@@ -0,0 +1,463 @@
+package GenericStore;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append only journal of every checkout, so agreements survive the process.
+ * record() only returns once the agreement is on disk, but callers do not each pay for an fsync: a background thread
+ * collects the records of every caller for a few milliseconds and writes them with a single FileChannel.force().
+ *
+ * File format: the int MAGIC, then one record per checkout of
+ * [int payload length][payload][int CRC32 of the payload], the payload being
+ * [byte tool code length][tool code][int checkout epoch day][int rental days][int discount percentage]
+ * [int chargeable days][long daily charge cents][long pre-discount cents][long discount cents][long final cents]
+ * [long pricing policy version]
+ * A record cut short by a crash fails its length or CRC check, replay stops there and the next open truncates it.
+ * Only a torn end is truncated: if a complete record follows the one that fails, the middle of the file is corrupt
+ * and opening or replaying it throws instead, so records that were already acknowledged are never dropped.
+ */
+public class CheckoutJournal implements Closeable {
+    private static final int MAGIC = 0x434B4A32;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    //length and CRC around each payload
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 10;
+
+    private final FileChannel channel;
+    private final long commitIntervalNanos;
+    private final Thread committer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordAdded = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private List<byte[]> pending = new ArrayList<>();
+    private long appendedCount;
+    private long durableCount;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Opens the journal, creating the file if needed. A torn record at the end of the file is truncated
+     * @param file - path of the journal file
+     * @param commitIntervalMillis - how long to collect records before each force, 0 to force as soon as possible
+     * @throws IOException - if the file cannot be opened, is not a journal or is corrupt before its end
+     */
+    public CheckoutJournal(Path file, long commitIntervalMillis) throws IOException {
+        //only the frames and CRCs are checked, the entries are not decoded
+        long validBytes = Files.exists(file) && Files.size(file) >= HEADER_BYTES ? replay(file, null, null) : 0;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validBytes == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC);
+            header.flip();
+            channel.truncate(0);
+            writeFully(header);
+            channel.force(true);
+            validBytes = HEADER_BYTES;
+        } else {
+            channel.truncate(validBytes);
+        }
+        channel.position(validBytes);
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        this.committer = new Thread(this::commitLoop, "checkout-journal");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Records an agreement, waiting until it is durable
+     * @param agreement - the agreement that was created
+     * @throws IOException - if the journal is closed or writing it failed
+     */
+    public void record(RentalAgreement agreement) throws IOException {
+        append(encode(agreement.getTool().getToolCode(), EpochDayUtil.parse(agreement.getCheckoutDate()),
+                agreement.getRentalDays(), agreement.getDiscountPercentage(), agreement.getChargeableDays(),
+                Math.round(agreement.getDailyRentalCharge() * 100), Math.round(agreement.getPreDiscountCharge() * 100),
+                Math.round(agreement.getDiscountAmount() * 100), Math.round(agreement.getFinalCharge() * 100),
+                agreement.getPolicyVersion()));
+    }
+
+    /**
+     * Records a quote, waiting until it is durable
+     * @param quote - the quote that was created
+     * @throws IOException - if the journal is closed or writing it failed
+     */
+    public void record(RentalQuote quote) throws IOException {
+        append(encode(quote.getTool().getToolCode(), EpochDayUtil.parse(quote.getCheckoutDate()),
+                quote.getRentalDays(), quote.getDiscountPercentage(), quote.getChargeableDays(),
+                quote.getDailyRentalChargeCents(), quote.getPreDiscountChargeCents(), quote.getDiscountAmountCents(),
+                quote.getFinalChargeCents(), quote.getPolicyVersion()));
+    }
+
+    /**
+     * Reads every complete record of a journal
+     * @param file - path of the journal file
+     * @param consumer - receives the entries in the order they were recorded
+     * @return - long representing the number of entries read
+     * @throws IOException - if the file cannot be read, is not a journal or is corrupt before its end
+     */
+    public static long replay(Path file, Consumer<Entry> consumer) throws IOException {
+        long[] count = new long[1];
+        replay(file, consumer, count);
+
+        return count[0];
+    }
+
+    /**
+     * Stops the background thread after the pending records are written and closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            recordAdded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void append(byte[] record) throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Checkout journal is closed.");
+            }
+            if (failure != null) {
+                throw new IOException("Checkout journal write failed.", failure);
+            }
+            pending.add(record);
+            long sequence = ++appendedCount;
+            recordAdded.signal();
+            while (durableCount < sequence && failure == null) {
+                committed.awaitUninterruptibly();
+            }
+            if (durableCount < sequence) {
+                throw new IOException("Checkout journal write failed.", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs on the background thread: waits for records, gives other callers the commit interval to add theirs,
+     * then writes them all and forces once
+     */
+    private void commitLoop() {
+        while (true) {
+            List<byte[]> batch;
+            long batchEnd;
+            IOException error;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    recordAdded.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (commitIntervalNanos > 0) {
+                sleepNanos(commitIntervalNanos);
+            }
+            lock.lock();
+            try {
+                batch = pending;
+                pending = new ArrayList<>();
+                batchEnd = appendedCount;
+                error = failure;
+            } finally {
+                lock.unlock();
+            }
+
+            //once a write failed the end of the file is unknown, so nothing else is written
+            if (error == null) {
+                try {
+                    writeBatch(batch);
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+            lock.lock();
+            try {
+                if (error == null) {
+                    durableCount = batchEnd;
+                } else if (failure == null) {
+                    failure = error;
+                }
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeBatch(List<byte[]> batch) throws IOException {
+        int size = 0;
+        for (byte[] record : batch) {
+            size += record.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : batch) {
+            buffer.put(record);
+        }
+        buffer.flip();
+        writeFully(buffer);
+        channel.force(false);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                //the committer only stops through close()
+            }
+        }
+    }
+
+    /**
+     * Builds one framed record
+     */
+    private static byte[] encode(String toolCode, int checkoutDay, int rentalDays, int discountPercentage,
+                                 int chargeableDays, long dailyChargeCents, long preDiscountCents, long discountCents,
+                                 long finalChargeCents, long policyVersion) {
+        byte[] code = toolCode.getBytes(StandardCharsets.US_ASCII);
+        int payloadBytes = 1 + code.length + 4 * Integer.BYTES + 5 * Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(payloadBytes + FRAME_BYTES);
+        buffer.putInt(payloadBytes);
+        buffer.put((byte) code.length);
+        buffer.put(code);
+        buffer.putInt(checkoutDay);
+        buffer.putInt(rentalDays);
+        buffer.putInt(discountPercentage);
+        buffer.putInt(chargeableDays);
+        buffer.putLong(dailyChargeCents);
+        buffer.putLong(preDiscountCents);
+        buffer.putLong(discountCents);
+        buffer.putLong(finalChargeCents);
+        buffer.putLong(policyVersion);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), Integer.BYTES, payloadBytes);
+        buffer.putInt((int) crc.getValue());
+
+        return buffer.array();
+    }
+
+    /**
+     * Reads records until the end of the file or the first torn record
+     * @param consumer - receives the entries, null to only check the frames
+     * @return - long representing the number of bytes up to the end of the last complete record
+     */
+    private static long replay(Path file, Consumer<Entry> consumer, long[] count) throws IOException {
+        long validBytes = readRecords(file, consumer, count);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (completeRecordAfter(channel, validBytes)) {
+                throw new IOException("Checkout journal is corrupt at byte " + validBytes
+                        + " with complete records after it: " + file);
+            }
+        }
+        return validBytes;
+    }
+
+    private static long readRecords(Path file, Consumer<Entry> consumer, long[] count) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkout journal: " + file);
+            }
+            long validBytes = HEADER_BYTES;
+            byte[] payload = new byte[MAX_PAYLOAD_BYTES];
+            CRC32 crc = new CRC32();
+            while (true) {
+                int payloadBytes;
+                try {
+                    payloadBytes = in.readInt();
+                    if (payloadBytes < 1 || payloadBytes > MAX_PAYLOAD_BYTES) {
+                        return validBytes;
+                    }
+                    in.readFully(payload, 0, payloadBytes);
+                    crc.reset();
+                    crc.update(payload, 0, payloadBytes);
+                    if (in.readInt() != (int) crc.getValue()) {
+                        return validBytes;
+                    }
+                } catch (EOFException e) {
+                    return validBytes;
+                }
+                if (consumer != null) {
+                    consumer.accept(decode(ByteBuffer.wrap(payload, 0, payloadBytes)));
+                }
+                validBytes += payloadBytes + FRAME_BYTES;
+                if (count != null) {
+                    count[0]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks for a record with a valid length and CRC starting anywhere after the failed one. A crash only tears the
+     * end of the file, so there is none after a torn record
+     */
+    private static boolean completeRecordAfter(FileChannel channel, long failedAt) throws IOException {
+        long size = channel.size();
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer frame = ByteBuffer.allocate(MAX_PAYLOAD_BYTES + Integer.BYTES);
+        CRC32 crc = new CRC32();
+        for (long position = failedAt + 1; position + FRAME_BYTES < size; position++) {
+            length.clear();
+            if (readFully(channel, length, position) < Integer.BYTES) {
+                return false;
+            }
+            int payloadBytes = length.getInt(0);
+            if (payloadBytes < 1 || payloadBytes > MAX_PAYLOAD_BYTES
+                    || position + FRAME_BYTES + payloadBytes > size) {
+                continue;
+            }
+            frame.clear().limit(payloadBytes + Integer.BYTES);
+            readFully(channel, frame, position + Integer.BYTES);
+            crc.reset();
+            crc.update(frame.array(), 0, payloadBytes);
+            if (frame.getInt(payloadBytes) == (int) crc.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return - int representing the number of bytes read into the buffer from the position
+     */
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+        while (buffer.hasRemaining()) {
+            int bytes = channel.read(buffer, position + read);
+            if (bytes < 0) {
+                break;
+            }
+            read += bytes;
+        }
+        return read;
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        byte[] code = new byte[payload.get()];
+        payload.get(code);
+
+        return new Entry(new String(code, StandardCharsets.US_ASCII), payload.getInt(), payload.getInt(),
+                payload.getInt(), payload.getInt(), payload.getLong(), payload.getLong(), payload.getLong(),
+                payload.getLong(), payload.getLong());
+    }
+
+    /**
+     * One recorded checkout
+     */
+    public static final class Entry {
+        private final String toolCode;
+        private final int checkoutDay;
+        private final int rentalDays;
+        private final int discountPercentage;
+        private final int chargeableDays;
+        private final long dailyRentalChargeCents;
+        private final long preDiscountChargeCents;
+        private final long discountAmountCents;
+        private final long finalChargeCents;
+        private final long policyVersion;
+
+        private Entry(String toolCode, int checkoutDay, int rentalDays, int discountPercentage, int chargeableDays,
+                      long dailyRentalChargeCents, long preDiscountChargeCents, long discountAmountCents,
+                      long finalChargeCents, long policyVersion) {
+            this.toolCode = toolCode;
+            this.checkoutDay = checkoutDay;
+            this.rentalDays = rentalDays;
+            this.discountPercentage = discountPercentage;
+            this.chargeableDays = chargeableDays;
+            this.dailyRentalChargeCents = dailyRentalChargeCents;
+            this.preDiscountChargeCents = preDiscountChargeCents;
+            this.discountAmountCents = discountAmountCents;
+            this.finalChargeCents = finalChargeCents;
+            this.policyVersion = policyVersion;
+        }
+
+        public String getToolCode() {
+            return this.toolCode;
+        }
+
+        public int getCheckoutDay() {
+            return this.checkoutDay;
+        }
+
+        public int getRentalDays() {
+            return this.rentalDays;
+        }
+
+        public int getDiscountPercentage() {
+            return this.discountPercentage;
+        }
+
+        public int getChargeableDays() {
+            return this.chargeableDays;
+        }
+
+        public long getDailyRentalChargeCents() {
+            return this.dailyRentalChargeCents;
+        }
+
+        public long getPreDiscountChargeCents() {
+            return this.preDiscountChargeCents;
+        }
+
+        public long getDiscountAmountCents() {
+            return this.discountAmountCents;
+        }
+
+        public long getFinalChargeCents() {
+            return this.finalChargeCents;
+        }
+
+        /**
+         * @return - long representing the version of the PricingPolicy the checkout was priced under
+         */
+        public long getPolicyVersion() {
+            return this.policyVersion;
+        }
+    }
+}
@@ -65,39 +65,33 @@ public final class DateUtil {
 
         log.info("Created return date: " + returnDate.getTime());
 
-        //find 4th of July occurrences between checkout date and return date
-        Calendar julyFourth = new GregorianCalendar(checkoutDate.get(Calendar.YEAR), Calendar.JULY, 4);
-        log.info("Created and set current year July 4th: " + julyFourth.getTime());
-        //create labor day object and set to the first monday of sept
-        Calendar laborDay = new GregorianCalendar(checkoutDate.get(Calendar.YEAR), Calendar.SEPTEMBER, 1);
-        log.info("Created and set 'Labor Day' to first day of Sept: " + laborDay.getTime());
-        setLaborDayDate(laborDay);
-
-
         for(int i = 0; i < yearsProgressed + 1; i++){
-            //check to see if the checkout date and return date contain 4th of july
+            int year = checkoutDate.get(Calendar.YEAR) + i;
+            //find the 4th of July for the year and adjust it to the appropriate weekday if it falls on a weekend
+            Calendar julyFourth = new GregorianCalendar(year, Calendar.JULY, 4);
+            if(julyFourth.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY){
+                julyFourth.add(Calendar.DAY_OF_YEAR, -1);
+            }
+            else if(julyFourth.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY){
+                julyFourth.add(Calendar.DAY_OF_YEAR, 1);
+            }
+            log.info("Created and set observed July 4th: " + julyFourth.getTime());
+            //create labor day object and set to the first monday of sept
+            Calendar laborDay = new GregorianCalendar(year, Calendar.SEPTEMBER, 1);
+            log.info("Created and set 'Labor Day' to first day of Sept: " + laborDay.getTime());
+            setLaborDayDate(laborDay);
+
+            //check to see if the checkout date and return date contain the holidays
             if(checkoutDate.compareTo(julyFourth) < 0){
                 if(returnDate.compareTo(julyFourth) > 0){
-                    //adjust 4th of july date to appropriate weekday if it falls on a weekend
-                    if(julyFourth.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY){
-                        julyFourth.add(Calendar.DAY_OF_YEAR, -1);
-                    }
-                    else if(julyFourth.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY){
-                        julyFourth.add(Calendar.DAY_OF_YEAR, 1);
-                    }
-                    //increase the holiday
                     holidayCount++;
-                    julyFourth.add(Calendar.YEAR, 1);
                 }
             }
-            log.info("July 4th year value incremented if found: " + julyFourth.getTime());
             if(checkoutDate.compareTo(laborDay) < 0) {
                 if (returnDate.compareTo(laborDay) > 0) {
                     holidayCount++;
                 }
             }
-            laborDay.add(Calendar.YEAR, 1);
-            log.info("Labor Day year value incremented  if found: " + julyFourth.getTime());
         }
         return holidayCount;
     }
@@ -129,13 +123,13 @@ public final class DateUtil {
 
         int weekendDays = 0;
         int dayOfWeek = checkoutDate.get(Calendar.DAY_OF_WEEK);
+        int daysRemaining = rentalDays%7;
 
-        //check if current day is saturday
-        if(dayOfWeek == 7){
+        //check if current day is saturday, the remaining days then start on a sunday and only contain one weekend day
+        if(dayOfWeek == 7 && daysRemaining != 0){
             weekendDays--;
         }
 
-        int daysRemaining = rentalDays%7;
         weekendDays += ((rentalDays/7) * 2);
 
         if(daysRemaining != 0){
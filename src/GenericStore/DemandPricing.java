@@ -0,0 +1,109 @@
+package GenericStore;
+
+/**
+ * Scales the daily rate of a tool with how heavily its tool type is booked over the requested rental, e.g. surge
+ * pricing on chainsaws around July 4th.
+ * Utilization is the booked unit days of the tool type in [checkout, checkout + rentalDays) divided by the units owned
+ * times the rental days. Both come from a ToolInventory: the units it owns and the bookings it reserves, which it
+ * keeps in its BookingDemand. Utilization is mapped to a rate multiplier by a schedule of thresholds: with the default
+ * schedule rates go up 10% from 50% utilization, 25% from 75% and 50% from 90%.
+ */
+public class DemandPricing {
+    //default schedule, utilization percentages and the multiplier in basis points (10000 = 1x) that starts there
+    private static final int[] DEFAULT_UTILIZATION_PERCENTS = {50, 75, 90};
+    private static final int[] DEFAULT_MULTIPLIERS = {11_000, 12_500, 15_000};
+    private static final int NO_SURGE = 10_000;
+
+    private final ToolInventory inventory;
+    private final BookingDemand demand;
+    private final int[] utilizationPercents;
+    private final int[] multipliers;
+
+    /**
+     * Uses the default schedule
+     * @param inventory - units and bookings of every tool, created with a BookingDemand
+     */
+    public DemandPricing(ToolInventory inventory) {
+        this(inventory, DEFAULT_UTILIZATION_PERCENTS, DEFAULT_MULTIPLIERS);
+    }
+
+    /**
+     * @param inventory - units and bookings of every tool, created with a BookingDemand
+     * @param utilizationPercents - strictly ascending utilization thresholds, none negative
+     * @param multipliers - rate multiplier in basis points used from the threshold at the same index on, all positive
+     */
+    public DemandPricing(ToolInventory inventory, int[] utilizationPercents, int[] multipliers) {
+        if (inventory.getDemand() == null) {
+            throw new IllegalArgumentException("The inventory must record its bookings in a BookingDemand.");
+        }
+        if (utilizationPercents.length != multipliers.length) {
+            throw new IllegalArgumentException("Every utilization threshold needs a multiplier.");
+        }
+        for (int i = 0; i < utilizationPercents.length; i++) {
+            if (utilizationPercents[i] < 0) {
+                throw new IllegalArgumentException("Utilization thresholds must not be negative.");
+            }
+            if (i > 0 && utilizationPercents[i] <= utilizationPercents[i - 1]) {
+                throw new IllegalArgumentException("Utilization thresholds must be in ascending order.");
+            }
+            if (multipliers[i] < 1) {
+                throw new IllegalArgumentException("Rate multipliers must be greater than 0.");
+            }
+        }
+        this.inventory = inventory;
+        this.demand = inventory.getDemand();
+        this.utilizationPercents = utilizationPercents.clone();
+        this.multipliers = multipliers.clone();
+    }
+
+    /**
+     * Returns the rate multiplier for renting a tool over a window
+     * @param tool - the tool being rented
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - int representing the multiplier in basis points, 10000 when there is no surge
+     */
+    public int rateMultiplier(Tool tool, int checkoutDay, int rentalDays) {
+        int units = inventory.getTypeUnitCount(tool.getTypeIndex());
+        if (units < 1) {
+            return NO_SURGE;
+        }
+        long booked = demand.bookedUnitDays(tool.getTypeIndex(), checkoutDay, checkoutDay + rentalDays);
+        long capacity = (long) units * rentalDays;
+
+        int multiplier = NO_SURGE;
+        for (int i = 0; i < utilizationPercents.length; i++) {
+            //booked / capacity >= percent / 100, without rounding
+            if (booked * 100 >= capacity * utilizationPercents[i]) {
+                multiplier = multipliers[i];
+            }
+        }
+        return multiplier;
+    }
+
+    /**
+     * Prices a rental at the daily rate of the current PricingPolicy scaled by the demand over the rental
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param checkoutDate - date in M/d/yy form
+     * @param tool - the tool being rented
+     * @param discountPercentage - discount between 0 and 100
+     * @return - RentalQuote at the scaled rate
+     * @throws Exception - if an input is invalid, with the RentalInputValidator message
+     */
+    public RentalQuote quote(int rentalDays, String checkoutDate, Tool tool, int discountPercentage) throws Exception {
+        int checkoutDay = RentalInputValidator.checkedCheckoutDay(tool.getToolCode(), checkoutDate, rentalDays,
+                discountPercentage);
+        return new RentalQuote(rentalDays, checkoutDate, checkoutDay, tool, discountPercentage,
+                PricingPolicy.current(), rateMultiplier(tool, checkoutDay, rentalDays));
+    }
+
+    /**
+     * Scales a daily rate, rounding half a cent up
+     * @param dailyChargeCents - daily rate in cents
+     * @param multiplier - multiplier in basis points
+     * @return - long representing the scaled rate in cents
+     */
+    public static long scaledChargeCents(long dailyChargeCents, int multiplier) {
+        return (dailyChargeCents * multiplier + NO_SURGE / 2) / NO_SURGE;
+    }
+}
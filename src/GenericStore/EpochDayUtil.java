@@ -0,0 +1,217 @@
+package GenericStore;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Utility used to do date calculations on epoch days (days since 1/1/1970) instead of Calendar objects.
+ * All dates are in the same "M/d/yy" format (years 2000+) that DateUtil works with.
+ */
+public final class EpochDayUtil {
+    //days of the week numbered the same way as java.util.Calendar
+    public static final int SUNDAY = 1;
+    public static final int MONDAY = 2;
+    public static final int SATURDAY = 7;
+
+    //Formatted dates of 2000 through 2099, indexed by epoch day and filled in as they are first asked for
+    private static final int TABLE_START = epochDay(2000, 1, 1);
+    private static final AtomicReferenceArray<String> DATE_STRINGS =
+            new AtomicReferenceArray<>(epochDay(2100, 1, 1) - TABLE_START);
+
+    private EpochDayUtil() {
+    }
+
+    /**
+     * Converts a date string into the number of days since 1/1/1970
+     * @param date - date in M/d/yy form
+     * @return - int representing the epoch day of the date
+     */
+    public static int parse(String date) {
+        int firstSlash = date.indexOf('/');
+        int secondSlash = date.indexOf('/', firstSlash + 1);
+        int month = Integer.parseInt(date.substring(0, firstSlash));
+        int day = Integer.parseInt(date.substring(firstSlash + 1, secondSlash));
+        //add 2000 as all dates are the year 2000+
+        int year = Integer.parseInt(date.substring(secondSlash + 1)) + 2000;
+
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Converts a year, month and day into the number of days since 1/1/1970
+     * @param year - full year (e.g. 2024)
+     * @param month - month indexed from 1
+     * @param day - day of the month
+     * @return - int representing the epoch day of the date
+     */
+    public static int epochDay(int year, int month, int day) {
+        //shift the year so it starts in March, putting the leap day at the end of the year
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Find the number of weekdays given a start date and a number of days. Removes holidays from the resulting value
+     * @param checkoutDay - start date as an epoch day
+     * @param rentalDays - number of days
+     * @return number of weekdays between the checkoutDay and the date resulting from adding the rentalDays
+     */
+    public static int weekdaysBetweenPeriod(int checkoutDay, int rentalDays) {
+        return rentalDays - containsHolidays(checkoutDay, rentalDays) - numberOfWeekendDays(checkoutDay, rentalDays);
+    }
+
+    /**
+     * Returns the number of holidays after the checkout day, up to and including the return day
+     * @param checkoutDay - start date as an epoch day
+     * @param rentalDays - number of days
+     * @return number of holidays between the checkoutDay and the date resulting from adding the rentalDays
+     */
+    public static int containsHolidays(int checkoutDay, int rentalDays) {
+        int returnDay = checkoutDay + rentalDays;
+        int holidayCount = 0;
+
+        for (int year = year(checkoutDay); year <= year(returnDay); year++) {
+            int julyFourth = julyFourth(year);
+            if (checkoutDay < julyFourth && returnDay >= julyFourth) {
+                holidayCount++;
+            }
+            int laborDay = laborDay(year);
+            if (checkoutDay < laborDay && returnDay >= laborDay) {
+                holidayCount++;
+            }
+        }
+        return holidayCount;
+    }
+
+    /**
+     * Calculates the number of weekend days given a start date and a number of days to progress
+     * @param checkoutDay - date to begin at as an epoch day
+     * @param rentalDays - number of days to progress and check for weekends
+     * @return - int representing the number of weekend days between the start date + rentalDays
+     */
+    public static int numberOfWeekendDays(int checkoutDay, int rentalDays) {
+        int weekendDays = 0;
+        int dayOfWeek = dayOfWeek(checkoutDay);
+        int daysRemaining = rentalDays % 7;
+
+        //same arithmetic as DateUtil.numberOfWeekendDays
+        if (dayOfWeek == SATURDAY && daysRemaining != 0) {
+            weekendDays--;
+        }
+
+        weekendDays += ((rentalDays / 7) * 2);
+
+        if (daysRemaining != 0) {
+            if ((daysRemaining + dayOfWeek) > 6) {
+                weekendDays++;
+                if ((daysRemaining + dayOfWeek) > 7) {
+                    weekendDays++;
+                }
+            }
+        }
+        return weekendDays;
+    }
+
+    /**
+     * Returns the epoch day July 4th is observed on for a year, moved to Friday or Monday if it falls on a weekend
+     * @param year - full year
+     * @return - int representing the epoch day of the observed July 4th
+     */
+    public static int julyFourth(int year) {
+        int julyFourth = epochDay(year, 7, 4);
+        int dayOfWeek = dayOfWeek(julyFourth);
+        if (dayOfWeek == SATURDAY) {
+            return julyFourth - 1;
+        }
+        if (dayOfWeek == SUNDAY) {
+            return julyFourth + 1;
+        }
+        return julyFourth;
+    }
+
+    /**
+     * Returns the epoch day of Labor Day (first Monday of September) for a year
+     * @param year - full year
+     * @return - int representing the epoch day of Labor Day
+     */
+    public static int laborDay(int year) {
+        int firstOfSeptember = epochDay(year, 9, 1);
+
+        return firstOfSeptember + Math.floorMod(MONDAY - dayOfWeek(firstOfSeptember), 7);
+    }
+
+    /**
+     * Returns the day of the week numbered the same way as java.util.Calendar (Sunday = 1 through Saturday = 7)
+     * @param epochDay - days since 1/1/1970
+     * @return - int representing the day of the week
+     */
+    public static int dayOfWeek(int epochDay) {
+        //1/1/1970 was a Thursday
+        return Math.floorMod(epochDay + 4, 7) + 1;
+    }
+
+    /**
+     * Returns the year an epoch day falls in
+     * @param epochDay - days since 1/1/1970
+     * @return - int representing the full year
+     */
+    public static int year(int epochDay) {
+        return civilDate(epochDay) / 10000;
+    }
+
+    /**
+     * Formats an epoch day the same way DateUtil.getDateString does (M/d/yy) without Calendar or SimpleDateFormat.
+     * Dates in 2000 through 2099 are only formatted once, every call for the same day returns the same String
+     * @param epochDay - days since 1/1/1970
+     * @return - String representing the date
+     */
+    public static String format(int epochDay) {
+        int index = epochDay - TABLE_START;
+        if (index < 0 || index >= DATE_STRINGS.length()) {
+            return formatDate(epochDay);
+        }
+        String date = DATE_STRINGS.get(index);
+        if (date == null) {
+            //when two threads format the same day at once, both return the String that made it into the table
+            date = formatDate(epochDay);
+            if (!DATE_STRINGS.compareAndSet(index, null, date)) {
+                date = DATE_STRINGS.get(index);
+            }
+        }
+        return date;
+    }
+
+    private static String formatDate(int epochDay) {
+        int date = civilDate(epochDay);
+        int year = date / 10000;
+        int month = date / 100 % 100;
+        int day = date % 100;
+        int shortYear = Math.floorMod(year, 100);
+
+        return month + "/" + day + "/" + (shortYear < 10 ? "0" : "") + shortYear;
+    }
+
+    /**
+     * Converts an epoch day into a year, month and day
+     * @param epochDay - days since 1/1/1970
+     * @return - int holding the date as yyyyMMdd
+     */
+    private static int civilDate(int epochDay) {
+        //years are shifted to start in March, see epochDay(int, int, int)
+        int shifted = epochDay + 719468;
+        int era = Math.floorDiv(shifted, 146097);
+        int dayOfEra = shifted - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        return year * 10000 + month * 100 + day;
+    }
+}
@@ -0,0 +1,294 @@
+package GenericStore;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Daily rates, weekend and holiday charge flags per tool type and the set of holidays, as one immutable, versioned
+ * snapshot.
+ * This is the only place rates, charge flags and holidays are defined. Everything that prices or lays out a rental
+ * (RentalAgreement, RentalQuote, RentalOrder, RentalItinerary, BatchDayCounter) takes its counts from a snapshot.
+ * The policy in use is swapped as a whole through a single AtomicReference (see publish() and PricingPolicyWatcher).
+ * Callers read current() once and price everything from that snapshot, so a rental is never priced from two
+ * versions and pricing never waits on a lock. Each records the version it used.
+ *
+ * Policy files are properties files:
+ * version=2
+ * Ladder.dailyCharge=1.99
+ * Ladder.weekendCharge=true
+ * Ladder.holidayCharge=false
+ * (the same three keys for Chainsaw and Jackhammer)
+ * holidays=independence-day, labor-day, 12/25/24
+ * Holidays are the observed July 4th, Labor Day and any extra M/d/yy dates. Extra dates on a weekend are charged
+ * as weekend days.
+ */
+public final class PricingPolicy {
+    //The rates and rules used until another policy is published
+    public static final PricingPolicy DEFAULT = new PricingPolicy(0, new long[]{199, 149, 299},
+            new boolean[]{true, false, false}, new boolean[]{false, true, false}, true, true, new int[0]);
+
+    private static final AtomicReference<PricingPolicy> CURRENT = new AtomicReference<>(DEFAULT);
+
+    private final long version;
+    //indexed by Tool.getTypeIndex()
+    private final long[] dailyChargeCents;
+    private final boolean[] weekendCharge;
+    private final boolean[] holidayCharge;
+    private final boolean independenceDay;
+    private final boolean laborDay;
+    //extra holidays as sorted epoch days, weekdays only
+    private final int[] extraHolidays;
+
+    private PricingPolicy(long version, long[] dailyChargeCents, boolean[] weekendCharge, boolean[] holidayCharge,
+                          boolean independenceDay, boolean laborDay, int[] extraHolidays) {
+        this.version = version;
+        this.dailyChargeCents = dailyChargeCents;
+        this.weekendCharge = weekendCharge;
+        this.holidayCharge = holidayCharge;
+        this.independenceDay = independenceDay;
+        this.laborDay = laborDay;
+        this.extraHolidays = extraHolidays;
+    }
+
+    /**
+     * @return - PricingPolicy currently used for pricing
+     */
+    public static PricingPolicy current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes a policy the one used for every rental priced from now on. Rentals already being priced finish with the
+     * policy they started with
+     * @param policy - the new policy
+     */
+    public static void publish(PricingPolicy policy) {
+        CURRENT.set(policy);
+    }
+
+    /**
+     * Reads a policy file
+     * @param file - properties file in the format described above
+     * @return - PricingPolicy read from the file
+     * @throws IOException - if the file cannot be read
+     * @throws Exception - if a key is missing or a value is invalid
+     */
+    public static PricingPolicy load(Path file) throws Exception {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        long version = Long.parseLong(required(properties, "version"));
+        long[] dailyChargeCents = new long[Tool.TYPE_COUNT];
+        boolean[] weekendCharge = new boolean[Tool.TYPE_COUNT];
+        boolean[] holidayCharge = new boolean[Tool.TYPE_COUNT];
+        for (int type = 0; type < Tool.TYPE_COUNT; type++) {
+            String name = Tool.typeName(type);
+            BigDecimal dailyCharge = new BigDecimal(required(properties, name + ".dailyCharge"));
+            if (dailyCharge.signum() <= 0 || dailyCharge.scale() > 2) {
+                throw new Exception("Daily charge of " + name + " must be a positive amount of dollars and cents.");
+            }
+            dailyChargeCents[type] = dailyCharge.movePointRight(2).longValueExact();
+            weekendCharge[type] = flag(properties, name + ".weekendCharge");
+            holidayCharge[type] = flag(properties, name + ".holidayCharge");
+        }
+
+        boolean independenceDay = false;
+        boolean laborDay = false;
+        int[] extraHolidays = new int[0];
+        for (String holiday : required(properties, "holidays").split(",")) {
+            holiday = holiday.trim();
+            if (holiday.equals("independence-day")) {
+                independenceDay = true;
+            } else if (holiday.equals("labor-day")) {
+                laborDay = true;
+            } else if (!holiday.isEmpty()) {
+                int day = RentalInputValidator.checkoutDay(holiday);
+                if (day < 0) {
+                    throw new Exception("Invalid holiday in pricing policy: " + holiday);
+                }
+                extraHolidays = Arrays.copyOf(extraHolidays, extraHolidays.length + 1);
+                extraHolidays[extraHolidays.length - 1] = day;
+            }
+        }
+        return new PricingPolicy(version, dailyChargeCents, weekendCharge, holidayCharge, independenceDay, laborDay,
+                weekdayHolidays(extraHolidays, independenceDay, laborDay));
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @param tool - the tool being rented
+     * @return - long representing the cost per day in cents
+     */
+    public long dailyChargeCents(Tool tool) {
+        return dailyChargeCents[tool.getTypeIndex()];
+    }
+
+    /**
+     * @param tool - the tool being rented
+     * @return - boolean representing if the tool charges for weekend days
+     */
+    public boolean weekendCharge(Tool tool) {
+        return weekendCharge[tool.getTypeIndex()];
+    }
+
+    /**
+     * @param tool - the tool being rented
+     * @return - boolean representing if the tool charges for holidays
+     */
+    public boolean holidayCharge(Tool tool) {
+        return holidayCharge[tool.getTypeIndex()];
+    }
+
+    /**
+     * Counts the weekend days from the day after checkout up to and including the return day
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - int representing the number of weekend days
+     */
+    public int weekendDays(int checkoutDay, int rentalDays) {
+        return EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays);
+    }
+
+    /**
+     * Counts the holidays of the policy from the day after checkout up to and including the return day
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - int representing the number of holidays
+     */
+    public int holidays(int checkoutDay, int rentalDays) {
+        int returnDay = checkoutDay + rentalDays;
+        int holidays = 0;
+        if (independenceDay || laborDay) {
+            for (int year = EpochDayUtil.year(checkoutDay); year <= EpochDayUtil.year(returnDay); year++) {
+                if (independenceDay && inRental(EpochDayUtil.julyFourth(year), checkoutDay, returnDay)) {
+                    holidays++;
+                }
+                if (laborDay && inRental(EpochDayUtil.laborDay(year), checkoutDay, returnDay)) {
+                    holidays++;
+                }
+            }
+        }
+        if (extraHolidays.length > 0) {
+            holidays += insertionPoint(returnDay + 1) - insertionPoint(checkoutDay + 1);
+        }
+        return holidays;
+    }
+
+    /**
+     * Calculates the number of chargeable days of a rental under this policy
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param tool - the tool being rented
+     * @return - int representing the amount of days that can be charged
+     */
+    public int chargeableDays(int checkoutDay, int rentalDays, Tool tool) {
+        return chargeableDays(rentalDays, weekendDays(checkoutDay, rentalDays), holidays(checkoutDay, rentalDays),
+                tool);
+    }
+
+    /**
+     * Calculates the number of chargeable days from already counted weekend days and holidays
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param weekendDays - number of weekend days in the rental, from weekendDays()
+     * @param holidays - number of holidays in the rental, from holidays()
+     * @param tool - the tool being rented
+     * @return - int representing the amount of days that can be charged
+     */
+    public int chargeableDays(int rentalDays, int weekendDays, int holidays, Tool tool) {
+        return rentalDays - (weekendCharge(tool) ? 0 : weekendDays) - (holidayCharge(tool) ? 0 : holidays);
+    }
+
+    /**
+     * @param day - epoch day
+     * @return - boolean representing if the day is a holiday of this policy
+     */
+    public boolean isHoliday(int day) {
+        int year = EpochDayUtil.year(day);
+        return (independenceDay && day == EpochDayUtil.julyFourth(year))
+                || (laborDay && day == EpochDayUtil.laborDay(year))
+                || Arrays.binarySearch(extraHolidays, day) >= 0;
+    }
+
+    /**
+     * @param other - another policy
+     * @return - boolean representing if both policies have the same holidays, whatever their rates and versions
+     */
+    boolean sameHolidays(PricingPolicy other) {
+        return this.independenceDay == other.independenceDay && this.laborDay == other.laborDay
+                && Arrays.equals(this.extraHolidays, other.extraHolidays);
+    }
+
+    boolean hasIndependenceDay() {
+        return this.independenceDay;
+    }
+
+    boolean hasLaborDay() {
+        return this.laborDay;
+    }
+
+    /**
+     * @return - int representing the first extra holiday on or after the day, Integer.MAX_VALUE if there is none
+     */
+    int nextExtraHoliday(int day) {
+        int index = insertionPoint(day);
+        return index < extraHolidays.length ? extraHolidays[index] : Integer.MAX_VALUE;
+    }
+
+    private static boolean inRental(int day, int checkoutDay, int returnDay) {
+        return day > checkoutDay && day <= returnDay;
+    }
+
+    /**
+     * @return - int representing the number of extra holidays before the day
+     */
+    private int insertionPoint(int day) {
+        int index = Arrays.binarySearch(extraHolidays, day);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Sorts the extra holidays and drops weekend days, repeats and the days already counted as July 4th or Labor Day,
+     * so no day is taken off twice
+     */
+    private static int[] weekdayHolidays(int[] days, boolean independenceDay, boolean laborDay) {
+        return Arrays.stream(days)
+                .filter(day -> {
+                    int dayOfWeek = EpochDayUtil.dayOfWeek(day);
+                    int year = EpochDayUtil.year(day);
+                    return dayOfWeek != EpochDayUtil.SATURDAY && dayOfWeek != EpochDayUtil.SUNDAY
+                            && !(independenceDay && day == EpochDayUtil.julyFourth(year))
+                            && !(laborDay && day == EpochDayUtil.laborDay(year));
+                })
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static String required(Properties properties, String key) throws Exception {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new Exception("Missing " + key + " in pricing policy.");
+        }
+        return value.trim();
+    }
+
+    private static boolean flag(Properties properties, String key) throws Exception {
+        String value = required(properties, key);
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new Exception(key + " must be true or false.");
+        }
+        return Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,97 @@
+package GenericStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Reloads the pricing policy whenever its file is written or replaced, and publishes it with
+ * PricingPolicy.publish(). A file that cannot be read or is invalid (e.g. caught halfway through being written) is
+ * skipped and the last good policy stays in use until the file is fixed. Changes only take effect when the version in
+ * the file changes.
+ */
+public class PricingPolicyWatcher implements Closeable {
+    private final Path file;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile String lastError;
+
+    /**
+     * Loads and publishes the policy, then keeps watching the file
+     * @param file - the policy file
+     * @throws Exception - if the file cannot be loaded now
+     */
+    public PricingPolicyWatcher(Path file) throws Exception {
+        this.file = file.toAbsolutePath();
+        PricingPolicy.publish(PricingPolicy.load(this.file));
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "pricing-policy-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Loads the file and publishes it if its version differs from the policy in use
+     * @return - boolean representing if the file was valid
+     */
+    public boolean reload() {
+        try {
+            PricingPolicy policy = PricingPolicy.load(file);
+            if (policy.getVersion() != PricingPolicy.current().getVersion()) {
+                PricingPolicy.publish(policy);
+            }
+            lastError = null;
+            return true;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            return false;
+        }
+    }
+
+    /**
+     * @return - String describing why the last reload failed, null if it succeeded
+     */
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    //OVERFLOW events have no context, reload to be safe
+                    Object changedFile = event.context();
+                    if (changedFile == null || file.getFileName().equals(changedFile)) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //closed
+        }
+    }
+
+    /**
+     * Stops watching the file. The policy in use stays published
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
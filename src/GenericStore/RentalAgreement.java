@@ -27,23 +27,25 @@ public class RentalAgreement {
     private final double discountAmount;
     private final double finalCharge;
 
+    //Version of the PricingPolicy the agreement was priced under
+    private final long policyVersion;
+
     public RentalAgreement(int rentalDays, String checkoutDate, Tool tool, int discountPercentage) throws Exception {
-        if (rentalDays < 1) {
-            throw new Exception("Rental days must be greater than 0.");
-        }
+        int checkoutDay = RentalInputValidator.checkedCheckoutDay(tool.getToolCode(), checkoutDate, rentalDays,
+                discountPercentage);
+        //read once so the whole agreement is priced under the same policy
+        PricingPolicy policy = PricingPolicy.current();
+        this.policyVersion = policy.getVersion();
         this.rentalDays = rentalDays;
         this.checkoutDate = checkoutDate;
-        this.returnDate = DateUtil.getDateString(checkoutDate, rentalDays);
+        this.returnDate = EpochDayUtil.format(checkoutDay + rentalDays);
         this.tool = tool;
-        this.chargeableDays = this.findChargeableDays(this.checkoutDate, this.rentalDays, this.tool);
+        this.chargeableDays = this.findChargeableDays(checkoutDay, this.rentalDays, this.tool, policy);
         this.toolCode = this.tool.getToolCode();
         this.toolType = this.tool.getType();
         this.toolBrand = this.tool.getBrand();
-        this.dailyRentalCharge = getCostPerDay(tool);
+        this.dailyRentalCharge = getCostPerDay(tool, policy);
         this.preDiscountCharge = getPreDiscountCharge(this.chargeableDays, this.dailyRentalCharge);
-        if (discountPercentage > 100 || discountPercentage < 0) {
-            throw new Exception("Discount percentage is out of the 0-100 range.");
-        }
         this.discountPercentage = discountPercentage;
         this.discountAmount = getDiscountAmount(this.preDiscountCharge, this.discountPercentage);
         this.finalCharge = calculateFinalCharge(this.preDiscountCharge, this.discountAmount);
@@ -54,21 +56,11 @@ public class RentalAgreement {
      * Returns the cost per day based on the Tool object passed in
      *
      * @param tool - this classes tool object
+     * @param policy - the pricing policy the agreement is priced under
      * @return - double representing cost per day based on Tool.getType()
      */
-    private double getCostPerDay(Tool tool) {
-        switch (tool.getType()) {
-            case "Ladder":
-                return 1.99;
-
-            case "Chainsaw":
-                return 1.49;
-
-            case "Jackhammer":
-                return 2.99;
-            default:
-                return -1;
-        }
+    private double getCostPerDay(Tool tool, PricingPolicy policy) {
+        return policy.dailyChargeCents(tool) / 100.0;
     }
 
     /**
@@ -121,30 +113,31 @@ public class RentalAgreement {
     }
 
     /**
-     * Uses the DateUtil class to calculate the number of chargeable days based on what the inputted tool has charges for
+     * Calculates the number of chargeable days based on what the inputted tool has charges for
+     * Weekend days and holidays are both counted by the pricing policy
      *
-     * @param checkoutDate - the date String representing the checkout date
+     * @param checkoutDay - epoch day of the checkout date
      * @param rentalDays - the amount of days the tool is being rented
      * @param tool - the tool being rented
+     * @param policy - the pricing policy the agreement is priced under
      * @return - int representing the amount of days that can be charged
      */
-    private int findChargeableDays(String checkoutDate, int rentalDays, Tool tool) {
+    private int findChargeableDays(int checkoutDay, int rentalDays, Tool tool, PricingPolicy policy) {
         int daySum;
-        int weekdays = DateUtil.weekdaysBetweenPeriod(checkoutDate, rentalDays);
-        int holidays = 0;
-        int weekendDays = 0;
+        int holidays = policy.holidays(checkoutDay, rentalDays);
+        int weekendDays = policy.weekendDays(checkoutDay, rentalDays);
+        int weekdays = rentalDays - holidays - weekendDays;
 
+        daySum = weekdays;
         //if the tool charges on holidays
-        if (tool.holidayCharge()) {
-            holidays += DateUtil.containsHolidays(checkoutDate, rentalDays);
+        if (policy.holidayCharge(tool)) {
+            daySum += holidays;
         }
         //if the tool charges on weekends
-        if (tool.weekendCharge()) {
-            weekendDays += DateUtil.numberOfWeekendDays(checkoutDate, rentalDays);
+        if (policy.weekendCharge(tool)) {
+            daySum += weekendDays;
         }
 
-        daySum = weekdays + holidays + weekendDays;
-
         return daySum;
     }
 
@@ -189,10 +182,30 @@ public class RentalAgreement {
     }
 
     //Return methods mostly for unit test purposes
+    public Tool getTool() {
+        return this.tool;
+    }
+
+    public int getRentalDays() {
+        return this.rentalDays;
+    }
+
+    public String getCheckoutDate() {
+        return this.checkoutDate;
+    }
+
+    public String getReturnDate() {
+        return this.returnDate;
+    }
+
     public double getDailyRentalCharge() {
         return this.dailyRentalCharge;
     }
 
+    public int getDiscountPercentage() {
+        return this.discountPercentage;
+    }
+
     public int getChargeableDays() {
         return this.chargeableDays;
     }
@@ -209,4 +222,8 @@ public class RentalAgreement {
         return this.finalCharge;
     }
 
+    public long getPolicyVersion() {
+        return this.policyVersion;
+    }
+
 }
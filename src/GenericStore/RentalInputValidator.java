@@ -0,0 +1,220 @@
+package GenericStore;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Validates rental inputs without throwing, for bulk imports where a share of the rows are bad and building an
+ * Exception (and its stack trace) per rejected row would cost more than pricing the good ones.
+ * Every check returns one of the error codes below, every validated row is counted under its code, and only valid
+ * rows are turned into RentalQuotes. The throwing constructors of Tool, RentalAgreement, RentalQuote and RentalOrder
+ * run the same checks and throw the message of the error code.
+ */
+public class RentalInputValidator {
+    //error codes
+    public static final int VALID = 0;
+    public static final int INVALID_RENTAL_DAYS = 1;
+    public static final int INVALID_DISCOUNT = 2;
+    public static final int UNKNOWN_TOOL_TYPE = 3;
+    public static final int UNKNOWN_TOOL_BRAND = 4;
+    public static final int MALFORMED_DATE = 5;
+    public static final int CODE_COUNT = 6;
+
+    private static final String[] MESSAGES = {
+            "Valid.",
+            "Rental days must be greater than 0.",
+            "Discount percentage is out of the 0-100 range.",
+            "Invalid tool code entered, unknown tool type.",
+            "Invalid tool code entered, unknown tool brand.",
+            "Checkout date must be a valid M/d/yy date."
+    };
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    //Every valid tool code shares one Tool, indexed by typeIndex * BRAND_COUNT + brandIndex
+    private static final Tool[] TOOLS = new Tool[Tool.TYPE_COUNT * Tool.BRAND_COUNT];
+
+    static {
+        for (int type = 0; type < Tool.TYPE_COUNT; type++) {
+            for (int brand = 0; brand < Tool.BRAND_COUNT; brand++) {
+                try {
+                    TOOLS[type * Tool.BRAND_COUNT + brand] = new Tool(Tool.toolCode(type, brand));
+                } catch (Exception e) {
+                    //Cannot happen, every combination above is a valid tool code
+                }
+            }
+        }
+    }
+
+    private final LongAdder[] counts = new LongAdder[CODE_COUNT];
+
+    public RentalInputValidator() {
+        for (int i = 0; i < CODE_COUNT; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Checks a row and counts it under the first error found, or under VALID
+     * @param toolCode - tool code such as LADW
+     * @param checkoutDate - date in M/d/yy form
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param discountPercentage - discount between 0 and 100
+     * @return - int representing VALID or the error code
+     */
+    public int validate(String toolCode, String checkoutDate, int rentalDays, int discountPercentage) {
+        return count(checkoutDayOrError(toolCode, checkoutDate, rentalDays, discountPercentage));
+    }
+
+    /**
+     * Checks a row, counts it, and prices it if it is valid
+     * @param toolCode - tool code such as LADW
+     * @param checkoutDate - date in M/d/yy form
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param discountPercentage - discount between 0 and 100
+     * @return - RentalQuote for the row, null if the row is invalid
+     */
+    public RentalQuote quote(String toolCode, String checkoutDate, int rentalDays, int discountPercentage) {
+        int checkoutDay = checkoutDayOrError(toolCode, checkoutDate, rentalDays, discountPercentage);
+        if (count(checkoutDay) != VALID) {
+            return null;
+        }
+        Tool tool = TOOLS[Tool.typeIndex(toolCode) * Tool.BRAND_COUNT + Tool.brandIndex(toolCode)];
+        return new RentalQuote(rentalDays, checkoutDate, checkoutDay, tool, discountPercentage);
+    }
+
+    /**
+     * Counts a checked row under its code
+     * @param checkoutDay - result of checkoutDayOrError
+     * @return - int representing VALID or the error code
+     */
+    private int count(int checkoutDay) {
+        int code = checkoutDay < 0 ? -checkoutDay : VALID;
+        counts[code].increment();
+        return code;
+    }
+
+    /**
+     * @param code - VALID or an error code
+     * @return - long representing the number of rows counted under the code
+     */
+    public long getCount(int code) {
+        return counts[code].sum();
+    }
+
+    /**
+     * @return - long representing the number of rows counted under any error code
+     */
+    public long getRejectedCount() {
+        long rejected = 0;
+        for (int code = VALID + 1; code < CODE_COUNT; code++) {
+            rejected += counts[code].sum();
+        }
+        return rejected;
+    }
+
+    /**
+     * Returns the message shown to the user for a code
+     * @param code - VALID or an error code
+     * @return - String describing the code
+     */
+    public static String message(int code) {
+        return MESSAGES[code];
+    }
+
+    /**
+     * Checks a row for the throwing constructors, parsing the checkout date only once
+     * @return - int representing the epoch day of the checkout date
+     * @throws Exception - with the message of the first error code found
+     */
+    static int checkedCheckoutDay(String toolCode, String checkoutDate, int rentalDays, int discountPercentage)
+            throws Exception {
+        int checkoutDay = checkoutDayOrError(toolCode, checkoutDate, rentalDays, discountPercentage);
+        if (checkoutDay < 0) {
+            throw new Exception(message(-checkoutDay));
+        }
+        return checkoutDay;
+    }
+
+    /**
+     * Checks a row without counting it, keeping the checkout date it parsed so callers do not parse it again
+     * @return - int representing the epoch day of the checkout date, or the first error code found negated
+     */
+    private static int checkoutDayOrError(String toolCode, String checkoutDate, int rentalDays,
+                                          int discountPercentage) {
+        if (rentalDays < 1) {
+            return -INVALID_RENTAL_DAYS;
+        }
+        if (discountPercentage > 100 || discountPercentage < 0) {
+            return -INVALID_DISCOUNT;
+        }
+        int toolError = checkToolCode(toolCode);
+        if (toolError != VALID) {
+            return -toolError;
+        }
+        int checkoutDay = checkoutDay(checkoutDate);
+        if (checkoutDay < 0) {
+            return -MALFORMED_DATE;
+        }
+        return checkoutDay;
+    }
+
+    /**
+     * @param toolCode - tool code such as LADW
+     * @return - int representing VALID, UNKNOWN_TOOL_TYPE or UNKNOWN_TOOL_BRAND
+     */
+    static int checkToolCode(String toolCode) {
+        if (Tool.typeIndex(toolCode) < 0) {
+            return UNKNOWN_TOOL_TYPE;
+        }
+        if (Tool.brandIndex(toolCode) < 0) {
+            return UNKNOWN_TOOL_BRAND;
+        }
+        return VALID;
+    }
+
+    /**
+     * Parses a M/d/yy date (1 or 2 digits each, years 2000+) without throwing
+     * @param date - date string
+     * @return - int representing the epoch day of the date, -1 if the date is malformed or does not exist
+     */
+    static int checkoutDay(String date) {
+        if (date == null) {
+            return -1;
+        }
+        int firstSlash = date.indexOf('/');
+        int secondSlash = date.indexOf('/', firstSlash + 1);
+        if (firstSlash < 0 || secondSlash < 0) {
+            return -1;
+        }
+        int month = number(date, 0, firstSlash);
+        int day = number(date, firstSlash + 1, secondSlash);
+        int year = number(date, secondSlash + 1, date.length());
+        if (month < 1 || month > 12 || day < 1 || year < 0) {
+            return -1;
+        }
+        year += 2000;
+        boolean leapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (day > DAYS_IN_MONTH[month - 1] + (month == 2 && leapYear ? 1 : 0)) {
+            return -1;
+        }
+        return EpochDayUtil.epochDay(year, month, day);
+    }
+
+    /**
+     * @return - int value of the 1 or 2 digits between start and end, -1 if there are none or anything else
+     */
+    private static int number(String text, int start, int end) {
+        if (end - start < 1 || end - start > 2) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,184 @@
+package GenericStore;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Cursor over the days of a rental (the day after checkout up to and including the return day), telling for each
+ * day what kind of day it is and whether the tool charges for it.
+ * Moving to the next day only updates a few ints, nothing is allocated per day. Holidays and charge flags come from
+ * the PricingPolicy passed in, so counting the charged days always gives the same number as
+ * RentalAgreement.getChargeableDays() under that policy (see RentalItineraryTest).
+ */
+public final class RentalItinerary {
+    //day classes
+    public static final int WEEKDAY = 0;
+    public static final int WEEKEND = 1;
+    public static final int JULY_FOURTH = 2;
+    public static final int LABOR_DAY = 3;
+    //an extra holiday of the pricing policy
+    public static final int HOLIDAY = 4;
+
+    private static final String[] DAY_CLASS_NAMES = {"Weekday", "Weekend", "Independence Day", "Labor Day",
+            "Holiday"};
+    private static final String[] DAY_NAMES = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+
+    private final int checkoutDay;
+    private final int returnDay;
+    private final PricingPolicy policy;
+    private final boolean weekendCharge;
+    private final boolean holidayCharge;
+
+    private int day;
+    private int dayOfWeek;
+    private int dayClass;
+    private boolean charged;
+
+    //holidays of the year the cursor is in, -1 if the policy does not have them
+    private int nextYearStart;
+    private int julyFourth;
+    private int laborDay;
+    //first extra holiday of the policy on or after the cursor
+    private int nextExtraHoliday;
+
+    /**
+     * @param policy - the pricing policy the rental is priced under
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param tool - the tool being rented
+     */
+    public RentalItinerary(PricingPolicy policy, int checkoutDay, int rentalDays, Tool tool) {
+        this.checkoutDay = checkoutDay;
+        this.returnDay = checkoutDay + rentalDays;
+        this.policy = policy;
+        this.weekendCharge = policy.weekendCharge(tool);
+        this.holidayCharge = policy.holidayCharge(tool);
+        reset();
+    }
+
+    /**
+     * Moves the cursor back before the first day of the rental
+     */
+    public void reset() {
+        this.day = checkoutDay;
+        this.dayOfWeek = EpochDayUtil.dayOfWeek(checkoutDay);
+        loadYear(EpochDayUtil.year(checkoutDay));
+        this.nextExtraHoliday = policy.nextExtraHoliday(checkoutDay + 1);
+    }
+
+    /**
+     * Moves the cursor to the next day of the rental
+     * @return - boolean representing if there was another day
+     */
+    public boolean next() {
+        if (day >= returnDay) {
+            return false;
+        }
+        day++;
+        dayOfWeek = dayOfWeek == EpochDayUtil.SATURDAY ? EpochDayUtil.SUNDAY : dayOfWeek + 1;
+        if (day >= nextYearStart) {
+            loadYear(EpochDayUtil.year(day));
+        }
+
+        if (day == julyFourth) {
+            dayClass = JULY_FOURTH;
+            charged = holidayCharge;
+        } else if (day == laborDay) {
+            dayClass = LABOR_DAY;
+            charged = holidayCharge;
+        } else if (day == nextExtraHoliday) {
+            dayClass = HOLIDAY;
+            charged = holidayCharge;
+            nextExtraHoliday = policy.nextExtraHoliday(day + 1);
+        } else if (dayOfWeek == EpochDayUtil.SATURDAY || dayOfWeek == EpochDayUtil.SUNDAY) {
+            dayClass = WEEKEND;
+            charged = weekendCharge;
+        } else {
+            dayClass = WEEKDAY;
+            charged = true;
+        }
+        return true;
+    }
+
+    public int getEpochDay() {
+        return this.day;
+    }
+
+    /**
+     * @return - int representing the day of the week, numbered like java.util.Calendar
+     */
+    public int getDayOfWeek() {
+        return this.dayOfWeek;
+    }
+
+    /**
+     * @return - int representing one of WEEKDAY, WEEKEND, JULY_FOURTH, LABOR_DAY or HOLIDAY
+     */
+    public int getDayClass() {
+        return this.dayClass;
+    }
+
+    public boolean isCharged() {
+        return this.charged;
+    }
+
+    /**
+     * Returns the name of a day class for display
+     * @param dayClass - one of WEEKDAY, WEEKEND, JULY_FOURTH, LABOR_DAY or HOLIDAY
+     * @return - String representing the day class
+     */
+    public static String dayClassName(int dayClass) {
+        return DAY_CLASS_NAMES[dayClass];
+    }
+
+    /**
+     * Lazily builds one invoice line per day of a rental, e.g. "Fri 7/3/15 Independence Day: $1.49"
+     * Lines are only built as the stream is consumed
+     * @param policy - the pricing policy the rental is priced under
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param rentalDays - the amount of days the tool is being rented
+     * @param tool - the tool being rented
+     * @return - Stream of invoice lines in date order
+     */
+    public static Stream<String> invoiceLines(PricingPolicy policy, int checkoutDay, int rentalDays, Tool tool) {
+        RentalItinerary itinerary = new RentalItinerary(policy, checkoutDay, rentalDays, tool);
+        long dailyChargeCents = policy.dailyChargeCents(tool);
+        Spliterator<String> lines = new Spliterators.AbstractSpliterator<String>(rentalDays,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                if (!itinerary.next()) {
+                    return false;
+                }
+                action.accept(itinerary.invoiceLine(dailyChargeCents));
+                return true;
+            }
+        };
+        return StreamSupport.stream(lines, false);
+    }
+
+    private String invoiceLine(long dailyChargeCents) {
+        StringBuilder builder = new StringBuilder(48);
+        builder.append(DAY_NAMES[dayOfWeek - 1]);
+        builder.append(' ');
+        builder.append(EpochDayUtil.format(day));
+        builder.append(' ');
+        builder.append(DAY_CLASS_NAMES[dayClass]);
+        if (charged) {
+            builder.append(": $");
+            RentalQuote.appendCents(builder, dailyChargeCents);
+        } else {
+            builder.append(": no charge");
+        }
+        return builder.toString();
+    }
+
+    private void loadYear(int year) {
+        nextYearStart = EpochDayUtil.epochDay(year + 1, 1, 1);
+        julyFourth = policy.hasIndependenceDay() ? EpochDayUtil.julyFourth(year) : -1;
+        laborDay = policy.hasLaborDay() ? EpochDayUtil.laborDay(year) : -1;
+    }
+}
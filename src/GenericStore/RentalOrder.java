@@ -0,0 +1,185 @@
+package GenericStore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A checkout of several tools for the same dates, e.g. a ladder, a chainsaw and two jackhammers.
+ * The weekend days and holidays of the rental are counted once for the whole order and every line item is priced
+ * from those counts, so adding a tool costs a few additions instead of another pass over the calendar.
+ * Each line item is charged the same as a RentalAgreement for that tool alone. The discount is applied once to the
+ * pre-discount total of the order, rounded the same way RentalAgreement rounds a discount.
+ */
+public class RentalOrder {
+    //Number of days the tools are being rented
+    private final int rentalDays;
+    private final String checkoutDate;
+    private final String returnDate;
+
+    //Counted once and shared by every line item
+    private final int weekendDays;
+    private final int holidays;
+
+    private final List<LineItem> lineItems;
+
+    private final int discountPercentage;
+    private final long preDiscountChargeCents;
+    private final long discountAmountCents;
+    private final long finalChargeCents;
+
+    //Version of the PricingPolicy the order was priced under
+    private final long policyVersion;
+
+    public RentalOrder(int rentalDays, String checkoutDate, List<Tool> tools, int discountPercentage) throws Exception {
+        if (tools.isEmpty()) {
+            throw new Exception("An order must contain at least one tool.");
+        }
+        //every tool is already a valid Tool, so the first one stands in for the tool code check
+        int checkoutDay = RentalInputValidator.checkedCheckoutDay(tools.get(0).getToolCode(), checkoutDate,
+                rentalDays, discountPercentage);
+        //read once so every line item is priced under the same policy
+        PricingPolicy policy = PricingPolicy.current();
+        this.policyVersion = policy.getVersion();
+        this.rentalDays = rentalDays;
+        this.checkoutDate = checkoutDate;
+        this.returnDate = EpochDayUtil.format(checkoutDay + rentalDays);
+        this.weekendDays = policy.weekendDays(checkoutDay, rentalDays);
+        this.holidays = policy.holidays(checkoutDay, rentalDays);
+
+        List<LineItem> items = new ArrayList<>(tools.size());
+        long preDiscount = 0;
+        for (Tool tool : tools) {
+            LineItem item = new LineItem(tool, policy.chargeableDays(rentalDays, weekendDays, holidays, tool),
+                    policy.dailyChargeCents(tool));
+            items.add(item);
+            preDiscount += item.preDiscountChargeCents;
+        }
+        this.lineItems = Collections.unmodifiableList(items);
+
+        this.discountPercentage = discountPercentage;
+        this.preDiscountChargeCents = preDiscount;
+        this.discountAmountCents = RentalPricer.discountCents(preDiscount, discountPercentage);
+        this.finalChargeCents = RentalPricer.finalChargeCents(preDiscount, this.discountAmountCents);
+    }
+
+    /**
+     * Builds one agreement document for the whole order: the rental dates, a section per line item and the order
+     * totals, formatted like RentalAgreement.getRentalAgreementOutput()
+     * @return - String representation of the RentalOrder
+     */
+    public String getRentalOrderOutput() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("Rental days: ");
+        builder.append(this.rentalDays);
+        builder.append("\nCheckout date: ");
+        builder.append(this.checkoutDate);
+        builder.append("\nDue date: ");
+        builder.append(this.returnDate);
+
+        for (LineItem item : this.lineItems) {
+            builder.append("\n\nTool code: ");
+            builder.append(item.tool.getToolCode());
+            builder.append("\nTool type: ");
+            builder.append(item.tool.getType());
+            builder.append("\nTool brand: ");
+            builder.append(item.tool.getBrand());
+            builder.append("\nDaily rental charge: $");
+            RentalQuote.appendCents(builder, item.dailyRentalChargeCents);
+            builder.append("\nCharge days: ");
+            builder.append(item.chargeableDays);
+            builder.append("\nPre-discount charge: $");
+            RentalQuote.appendCents(builder, item.preDiscountChargeCents);
+        }
+
+        builder.append("\n\nOrder pre-discount charge: $");
+        RentalQuote.appendCents(builder, this.preDiscountChargeCents);
+        builder.append("\nDiscount percent: ");
+        builder.append(this.discountPercentage);
+        builder.append("%");
+        builder.append("\nDiscount amount: $");
+        RentalQuote.appendCents(builder, this.discountAmountCents);
+        builder.append("\nFinal charge: $");
+        RentalQuote.appendCents(builder, this.finalChargeCents);
+
+        return builder.toString();
+    }
+
+    public int getRentalDays() {
+        return this.rentalDays;
+    }
+
+    public String getCheckoutDate() {
+        return this.checkoutDate;
+    }
+
+    public String getReturnDate() {
+        return this.returnDate;
+    }
+
+    public int getWeekendDays() {
+        return this.weekendDays;
+    }
+
+    public int getHolidays() {
+        return this.holidays;
+    }
+
+    public List<LineItem> getLineItems() {
+        return this.lineItems;
+    }
+
+    public int getDiscountPercentage() {
+        return this.discountPercentage;
+    }
+
+    public long getPreDiscountChargeCents() {
+        return this.preDiscountChargeCents;
+    }
+
+    public long getDiscountAmountCents() {
+        return this.discountAmountCents;
+    }
+
+    public long getFinalChargeCents() {
+        return this.finalChargeCents;
+    }
+
+    public long getPolicyVersion() {
+        return this.policyVersion;
+    }
+
+    /**
+     * One tool of the order and what it charges before the order discount
+     */
+    public static final class LineItem {
+        private final Tool tool;
+        private final int chargeableDays;
+        private final long dailyRentalChargeCents;
+        private final long preDiscountChargeCents;
+
+        private LineItem(Tool tool, int chargeableDays, long dailyRentalChargeCents) {
+            this.tool = tool;
+            this.chargeableDays = chargeableDays;
+            this.dailyRentalChargeCents = dailyRentalChargeCents;
+            this.preDiscountChargeCents = RentalPricer.preDiscountCents(chargeableDays, this.dailyRentalChargeCents);
+        }
+
+        public Tool getTool() {
+            return this.tool;
+        }
+
+        public int getChargeableDays() {
+            return this.chargeableDays;
+        }
+
+        public long getDailyRentalChargeCents() {
+            return this.dailyRentalChargeCents;
+        }
+
+        public long getPreDiscountChargeCents() {
+            return this.preDiscountChargeCents;
+        }
+    }
+}
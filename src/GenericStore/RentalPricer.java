@@ -0,0 +1,56 @@
+package GenericStore;
+
+/**
+ * Calculates the same charges as RentalAgreement, but on whole cents instead of doubles and BigDecimal. Daily rates
+ * and chargeable days come from a PricingPolicy. Given the same policy, results always match RentalAgreement (checked
+ * by DifferentialPricingTest).
+ */
+public final class RentalPricer {
+
+    private RentalPricer() {
+    }
+
+    /**
+     * Calculates the charge before the discount
+     * @param chargeableDays - number of days that are chargeable
+     * @param dailyChargeCents - cost per day in cents
+     * @return - long representing pre-discount charge in cents
+     */
+    public static long preDiscountCents(int chargeableDays, long dailyChargeCents) {
+        return chargeableDays * dailyChargeCents;
+    }
+
+    /**
+     * Calculates the discount amount, rounded half up to the nearest cent.
+     * RentalAgreement multiplies doubles before rounding, so an exact half cent can land just below the half and
+     * round down there (e.g. 35% of $0.10 is $0.03). Those ties are settled the same way here so both always agree.
+     * @param preDiscountCents - charge before the discount in cents
+     * @param discountPercentage - discount percentage as an int which is >= 0 and <= 100
+     * @return - long representing the amount of the discount in cents
+     */
+    public static long discountCents(long preDiscountCents, int discountPercentage) {
+        //discount in hundredths of a cent
+        long discount = preDiscountCents * discountPercentage;
+        long cents = discount / 100;
+        long remainder = discount % 100;
+        if (remainder < 50) {
+            return cents;
+        }
+        if (remainder > 50) {
+            return cents + 1;
+        }
+        double asDouble = ((double) preDiscountCents / 100) * ((double) discountPercentage / 100);
+
+        return asDouble < discount / 10000.0 ? cents : cents + 1;
+    }
+
+    /**
+     * Calculates the final charge based on the discount amount and pre-discount charge
+     * @param preDiscountCents - charge before the discount in cents
+     * @param discountCents - amount of the discount in cents
+     * @return - long representing the final charge in cents
+     */
+    public static long finalChargeCents(long preDiscountCents, long discountCents) {
+        return preDiscountCents - discountCents;
+    }
+}
@@ -0,0 +1,198 @@
+package GenericStore;
+
+/**
+ * Prices a rental the same way RentalAgreement does, using EpochDayUtil, PricingPolicy and RentalPricer only.
+ * Nothing here touches java.util.Calendar, java.text or the logging framework, which is most of what the first
+ * RentalAgreement of a JVM pays for, so short lived jobs get their first quote much sooner.
+ * Money is always formatted with US separators, matching RentalAgreement in a US locale.
+ *
+ * To take class loading off the start up path as well, warmUp() can be called while the process is otherwise idle,
+ * or an AppCDS archive can be made from a run of GenericStoreBenchmarks.StartupBenchmark:
+ * java -XX:ArchiveClassesAtExit=pricing.jsa -cp (classes) GenericStoreBenchmarks.StartupBenchmark quote
+ * and used with java -XX:SharedArchiveFile=pricing.jsa
+ */
+public class RentalQuote {
+    //Number of days the tool is being rented
+    private final int rentalDays;
+    private final String checkoutDate;
+    private final String returnDate;
+
+    //The number of days within the rental period that are actually chargable
+    private final int chargeableDays;
+
+    private final Tool tool;
+
+    private final long dailyRentalChargeCents;
+    private final int discountPercentage;
+    private final long preDiscountChargeCents;
+    private final long discountAmountCents;
+    private final long finalChargeCents;
+
+    //Version of the PricingPolicy the quote was priced under
+    private final long policyVersion;
+
+    public RentalQuote(int rentalDays, String checkoutDate, Tool tool, int discountPercentage) throws Exception {
+        this(rentalDays, checkoutDate, checkedCheckoutDay(rentalDays, checkoutDate, tool, discountPercentage), tool,
+                discountPercentage);
+    }
+
+    /**
+     * Prices inputs that were already validated, see RentalInputValidator
+     * @param checkoutDay - the checkout date as an epoch day
+     */
+    RentalQuote(int rentalDays, String checkoutDate, int checkoutDay, Tool tool, int discountPercentage) {
+        //read once so the whole quote is priced under the same policy
+        this(rentalDays, checkoutDate, checkoutDay, tool, discountPercentage, PricingPolicy.current(), 10_000);
+    }
+
+    /**
+     * Prices inputs that were already validated at a scaled daily rate, see DemandPricing
+     * @param checkoutDay - the checkout date as an epoch day
+     * @param policy - the pricing policy the quote is priced under
+     * @param rateMultiplier - multiplier of the policy's daily rate in basis points (10000 = 1x)
+     */
+    RentalQuote(int rentalDays, String checkoutDate, int checkoutDay, Tool tool, int discountPercentage,
+                PricingPolicy policy, int rateMultiplier) {
+        this.policyVersion = policy.getVersion();
+        this.rentalDays = rentalDays;
+        this.checkoutDate = checkoutDate;
+        this.returnDate = EpochDayUtil.format(checkoutDay + rentalDays);
+        this.tool = tool;
+        this.chargeableDays = policy.chargeableDays(checkoutDay, rentalDays, tool);
+        this.dailyRentalChargeCents = DemandPricing.scaledChargeCents(policy.dailyChargeCents(tool), rateMultiplier);
+        this.preDiscountChargeCents = RentalPricer.preDiscountCents(this.chargeableDays, this.dailyRentalChargeCents);
+        this.discountPercentage = discountPercentage;
+        this.discountAmountCents = RentalPricer.discountCents(this.preDiscountChargeCents, discountPercentage);
+        this.finalChargeCents = RentalPricer.finalChargeCents(this.preDiscountChargeCents, this.discountAmountCents);
+    }
+
+    private static int checkedCheckoutDay(int rentalDays, String checkoutDate, Tool tool, int discountPercentage)
+            throws Exception {
+        return RentalInputValidator.checkedCheckoutDay(tool.getToolCode(), checkoutDate, rentalDays,
+                discountPercentage);
+    }
+
+    /**
+     * Loads and runs everything a quote needs once, so the first real quote does not pay for class loading
+     * and initialization. Meant to be called during start up, e.g. before a worker starts taking requests
+     */
+    public static void warmUp() {
+        try {
+            new RentalQuote(5, "7/2/24", new Tool("LADW"), 10).getRentalQuoteOutput();
+        } catch (Exception e) {
+            //Cannot happen, the inputs above are valid
+        }
+    }
+
+    /**
+     * Builds a String containing all the info that needs to be displayed to the user, same as
+     * RentalAgreement.getRentalAgreementOutput()
+     * @return - String representation of the RentalQuote
+     */
+    public String getRentalQuoteOutput() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append("Tool code: ");
+        builder.append(this.tool.getToolCode());
+        builder.append("\nTool type: ");
+        builder.append(this.tool.getType());
+
+        builder.append("\nTool brand: ");
+        builder.append(this.tool.getBrand());
+        builder.append("\nRental days: ");
+        builder.append(this.rentalDays);
+        builder.append("\nCheckout date: ");
+        builder.append(this.checkoutDate);
+        builder.append("\nDue date: ");
+        builder.append(this.returnDate);
+
+        builder.append("\nDaily rental charge: $");
+        appendCents(builder, this.dailyRentalChargeCents);
+        builder.append("\nCharge days: ");
+        builder.append(this.chargeableDays);
+        builder.append("\nPre-discount charge: $");
+        appendCents(builder, this.preDiscountChargeCents);
+        builder.append("\nDiscount percent: ");
+        builder.append(this.discountPercentage);
+        builder.append("%");
+
+        builder.append("\nDiscount amount: $");
+        appendCents(builder, this.discountAmountCents);
+        builder.append("\nFinal charge: $");
+        appendCents(builder, this.finalChargeCents);
+
+        return builder.toString();
+    }
+
+    /**
+     * Appends an amount of cents the way DecimalFormat("#,###.##") prints it in a US locale:
+     * grouped dollars and no trailing zeros in the cents (e.g. 1,234.5)
+     * @param builder - builder to append to
+     * @param cents - amount in cents
+     */
+    static void appendCents(StringBuilder builder, long cents) {
+        if (cents < 0) {
+            builder.append('-');
+            cents = -cents;
+        }
+        String dollars = Long.toString(cents / 100);
+        for (int i = 0; i < dollars.length(); i++) {
+            if (i > 0 && (dollars.length() - i) % 3 == 0) {
+                builder.append(',');
+            }
+            builder.append(dollars.charAt(i));
+        }
+        long fraction = cents % 100;
+        if (fraction != 0) {
+            builder.append('.');
+            builder.append(fraction / 10);
+            if (fraction % 10 != 0) {
+                builder.append(fraction % 10);
+            }
+        }
+    }
+
+    public Tool getTool() {
+        return this.tool;
+    }
+
+    public int getRentalDays() {
+        return this.rentalDays;
+    }
+
+    public String getCheckoutDate() {
+        return this.checkoutDate;
+    }
+
+    public String getReturnDate() {
+        return this.returnDate;
+    }
+
+    public int getChargeableDays() {
+        return this.chargeableDays;
+    }
+
+    public int getDiscountPercentage() {
+        return this.discountPercentage;
+    }
+
+    public long getDailyRentalChargeCents() {
+        return this.dailyRentalChargeCents;
+    }
+
+    public long getPreDiscountChargeCents() {
+        return this.preDiscountChargeCents;
+    }
+
+    public long getDiscountAmountCents() {
+        return this.discountAmountCents;
+    }
+
+    public long getFinalChargeCents() {
+        return this.finalChargeCents;
+    }
+
+    public long getPolicyVersion() {
+        return this.policyVersion;
+    }
+}
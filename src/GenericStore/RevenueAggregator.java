@@ -0,0 +1,273 @@
+package GenericStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Live totals of final charges, discounts, rental days and agreement counts by tool type and brand, kept since start
+ * up and per minute (tumbling windows) for the last windowCount minutes.
+ * Recording never takes a global lock: totals are split into stripes and each thread adds to the stripe picked by its
+ * own probe. Unlike the cells of a LongAdder, a stripe is a lock rather than a CAS cell, held while one record is added
+ * to it or while it is read, so every snapshot contains whole records only, never the charge of an agreement without
+ * its discount or count. As in LongAdder, a thread that finds its stripe locked by another thread moves its probe to a
+ * different stripe for its next record, so threads only keep sharing a stripe while there are more threads than
+ * stripes.
+ */
+public class RevenueAggregator {
+    //metrics kept for each tool type and brand
+    public static final int FINAL_CHARGE_CENTS = 0;
+    public static final int DISCOUNT_CENTS = 1;
+    public static final int RENTAL_DAYS = 2;
+    public static final int AGREEMENTS = 3;
+    private static final int METRIC_COUNT = 4;
+
+    private static final int KEY_COUNT = Tool.TYPE_COUNT * Tool.BRAND_COUNT;
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    //each thread's stripe choice, moved to another stripe whenever its stripe was contended
+    private static final ThreadLocal<int[]> PROBE =
+            ThreadLocal.withInitial(() -> new int[]{(int) Thread.currentThread().getId() * 0x9E3779B9 | 1});
+
+    private final int stripeCount;
+    private final LongSupplier clock;
+    private final Window total;
+    private final AtomicReferenceArray<Window> windows;
+
+    /**
+     * Keeps an hour of per minute windows using the system clock
+     */
+    public RevenueAggregator() {
+        this(60, System::currentTimeMillis);
+    }
+
+    /**
+     * @param windowCount - number of past minutes to keep
+     * @param clock - source of the current time in milliseconds
+     */
+    public RevenueAggregator(int windowCount, LongSupplier clock) {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() * 2) {
+            stripes <<= 1;
+        }
+        this.stripeCount = stripes;
+        this.clock = clock;
+        this.total = new Window(Long.MIN_VALUE, stripes);
+        this.windows = new AtomicReferenceArray<>(windowCount);
+    }
+
+    /**
+     * Adds an agreement to the current minute and the totals
+     * @param agreement - the agreement that was created
+     */
+    public void record(RentalAgreement agreement) {
+        record(agreement.getTool(), agreement.getRentalDays(), Math.round(agreement.getDiscountAmount() * 100),
+                Math.round(agreement.getFinalCharge() * 100));
+    }
+
+    /**
+     * Adds a quote to the current minute and the totals
+     * @param quote - the quote that was created
+     */
+    public void record(RentalQuote quote) {
+        record(quote.getTool(), quote.getRentalDays(), quote.getDiscountAmountCents(), quote.getFinalChargeCents());
+    }
+
+    /**
+     * Adds an already priced rental to the current minute and the totals
+     * @param tool - the rented tool
+     * @param rentalDays - the amount of days the tool is rented
+     * @param discountCents - discount amount in cents
+     * @param finalChargeCents - final charge in cents
+     */
+    public void record(Tool tool, int rentalDays, long discountCents, long finalChargeCents) {
+        int offset = (tool.getTypeIndex() * Tool.BRAND_COUNT + tool.getBrandIndex()) * METRIC_COUNT;
+        int[] probe = PROBE.get();
+        int stripe = probe[0] & (stripeCount - 1);
+
+        boolean contended = !total.stripes[stripe].add(offset, rentalDays, discountCents, finalChargeCents);
+        contended |= !currentWindow().stripes[stripe].add(offset, rentalDays, discountCents, finalChargeCents);
+        if (contended) {
+            //xorshift, as LongAdder does, so colliding threads spread over the other stripes
+            int next = probe[0];
+            next ^= next << 13;
+            next ^= next >>> 17;
+            next ^= next << 5;
+            probe[0] = next;
+        }
+    }
+
+    /**
+     * Returns everything recorded since the aggregator was created
+     * @return - Snapshot of the totals
+     */
+    public Snapshot totals() {
+        return total.snapshot();
+    }
+
+    /**
+     * Returns the windows of the last minutes, oldest first. The newest window is the current, still open minute
+     * @param minutes - number of minutes to return, at most windowCount
+     * @return - List of Snapshots, one per minute including minutes with nothing recorded
+     */
+    public List<Snapshot> recentMinutes(int minutes) {
+        long currentMinute = clock.getAsLong() / MILLIS_PER_MINUTE;
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (long minute = currentMinute - Math.min(minutes, windows.length()) + 1; minute <= currentMinute; minute++) {
+            Window window = windows.get(slot(minute));
+            snapshots.add(window != null && window.minute == minute ? window.snapshot() : new Snapshot(minute));
+        }
+        return snapshots;
+    }
+
+    private Window currentWindow() {
+        long minute = clock.getAsLong() / MILLIS_PER_MINUTE;
+        int slot = slot(minute);
+        Window window = windows.get(slot);
+        while (window == null || window.minute < minute) {
+            //the first thread in a new minute replaces the window from windowCount minutes ago
+            Window next = new Window(minute, stripeCount);
+            if (windows.compareAndSet(slot, window, next)) {
+                return next;
+            }
+            window = windows.get(slot);
+        }
+        return window;
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) windows.length());
+    }
+
+    /**
+     * The stripes of one minute (or of the totals)
+     */
+    private static final class Window {
+        private final long minute;
+        private final Stripe[] stripes;
+
+        private Window(long minute, int stripeCount) {
+            this.minute = minute;
+            this.stripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Stripe();
+            }
+        }
+
+        private Snapshot snapshot() {
+            Snapshot snapshot = new Snapshot(minute);
+            for (Stripe stripe : stripes) {
+                stripe.addTo(snapshot.values);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * One thread group's share of the metrics
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] values = new long[KEY_COUNT * METRIC_COUNT];
+
+        /**
+         * Adds one record, waiting for the stripe if another thread holds it
+         * @return - boolean true if the stripe was free, false if this thread had to wait for it
+         */
+        private boolean add(int offset, int rentalDays, long discountCents, long finalChargeCents) {
+            boolean free = lock.tryLock();
+            if (!free) {
+                lock.lock();
+            }
+            try {
+                values[offset + FINAL_CHARGE_CENTS] += finalChargeCents;
+                values[offset + DISCOUNT_CENTS] += discountCents;
+                values[offset + RENTAL_DAYS] += rentalDays;
+                values[offset + AGREEMENTS]++;
+            } finally {
+                lock.unlock();
+            }
+            return free;
+        }
+
+        private void addTo(long[] sums) {
+            lock.lock();
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    sums[i] += values[i];
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Metrics by tool type and brand at the time the snapshot was taken
+     */
+    public static final class Snapshot {
+        private final long minute;
+        private final long[] values = new long[KEY_COUNT * METRIC_COUNT];
+
+        private Snapshot(long minute) {
+            this.minute = minute;
+        }
+
+        /**
+         * @return - long representing the minute since 1/1/1970 the window covers, Long.MIN_VALUE for the totals
+         */
+        public long getMinute() {
+            return this.minute;
+        }
+
+        /**
+         * @param metric - one of FINAL_CHARGE_CENTS, DISCOUNT_CENTS, RENTAL_DAYS or AGREEMENTS
+         * @param typeIndex - index from Tool.getTypeIndex()
+         * @param brandIndex - index from Tool.getBrandIndex()
+         * @return - long representing the metric for the tool type and brand
+         */
+        public long get(int metric, int typeIndex, int brandIndex) {
+            return values[(typeIndex * Tool.BRAND_COUNT + brandIndex) * METRIC_COUNT + metric];
+        }
+
+        /**
+         * @param metric - one of FINAL_CHARGE_CENTS, DISCOUNT_CENTS, RENTAL_DAYS or AGREEMENTS
+         * @param typeIndex - index from Tool.getTypeIndex()
+         * @return - long representing the metric for every brand of the tool type
+         */
+        public long getByType(int metric, int typeIndex) {
+            long sum = 0;
+            for (int brandIndex = 0; brandIndex < Tool.BRAND_COUNT; brandIndex++) {
+                sum += get(metric, typeIndex, brandIndex);
+            }
+            return sum;
+        }
+
+        /**
+         * @param metric - one of FINAL_CHARGE_CENTS, DISCOUNT_CENTS, RENTAL_DAYS or AGREEMENTS
+         * @param brandIndex - index from Tool.getBrandIndex()
+         * @return - long representing the metric for every tool type of the brand
+         */
+        public long getByBrand(int metric, int brandIndex) {
+            long sum = 0;
+            for (int typeIndex = 0; typeIndex < Tool.TYPE_COUNT; typeIndex++) {
+                sum += get(metric, typeIndex, brandIndex);
+            }
+            return sum;
+        }
+
+        /**
+         * @param metric - one of FINAL_CHARGE_CENTS, DISCOUNT_CENTS, RENTAL_DAYS or AGREEMENTS
+         * @return - long representing the metric over every tool
+         */
+        public long getTotal(int metric) {
+            long sum = 0;
+            for (int typeIndex = 0; typeIndex < Tool.TYPE_COUNT; typeIndex++) {
+                sum += getByType(metric, typeIndex);
+            }
+            return sum;
+        }
+    }
+}
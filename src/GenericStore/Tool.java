@@ -5,97 +5,128 @@ package GenericStore;
  * Mostly used to try and keep the RentalAgreement class a bit cleaner
  */
 public class Tool {
+    //Tool types and brands in the order used by getTypeIndex() and getBrandIndex()
+    private static final String[] TYPES = {"Ladder", "Chainsaw", "Jackhammer"};
+    private static final String[] BRANDS = {"Werner", "Stihl", "Ridgid", "DeWalt"};
+    //Tool code parts in the same order, a tool code is a type code followed by a brand code
+    private static final String[] TYPE_CODES = {"LAD", "CHN", "JAK"};
+    private static final String[] BRAND_CODES = {"W", "S", "R", "D"};
+    public static final int TYPE_COUNT = TYPES.length;
+    public static final int BRAND_COUNT = BRANDS.length;
+
     private final String toolType;
     private final String brand;
     private final String toolCode;
+    private final int typeIndex;
+    private final int brandIndex;
 
     public Tool(String toolCode) throws Exception {
+        if (RentalInputValidator.checkToolCode(toolCode) != RentalInputValidator.VALID) {
+            throw new Exception("Invalid tool code entered: " + toolCode);
+        }
         this.toolCode = toolCode;
-        this.toolType = this.toolType();
-        this.brand = this.toolBrand();
+        this.typeIndex = typeIndex(toolCode);
+        this.brandIndex = brandIndex(toolCode);
+        this.toolType = TYPES[this.typeIndex];
+        this.brand = BRANDS[this.brandIndex];
+    }
+
+    public String getToolCode() {
+        return this.toolCode;
     }
+    public String getType() { return this.toolType; }
+    public String getBrand() { return this.brand; }
 
     /**
-     * Gets the type of the tool based on the tool code
-     * @return - String representing tool type
+     * Returns the position of the tool type, used to index per type arrays
+     * @return - int between 0 and TYPE_COUNT - 1
      */
-    private String toolType() throws Exception {
-        switch (this.getToolCode().substring(0, 3)) {
-            case "LAD":
-                return "Ladder";
+    public int getTypeIndex() {
+        return this.typeIndex;
+    }
 
-            case "CHN":
-                return "Chainsaw";
+    /**
+     * Returns the position of the tool brand, used to index per brand arrays
+     * @return - int between 0 and BRAND_COUNT - 1
+     */
+    public int getBrandIndex() {
+        return this.brandIndex;
+    }
 
-            case "JAK":
-                return "Jackhammer";
-            default:
-                throw new Exception("Invalid tool code entered: " + this.toolCode);
-        }
+    /**
+     * Returns the tool type at a type index
+     * @param typeIndex - index returned by getTypeIndex()
+     * @return - String representing tool type
+     */
+    public static String typeName(int typeIndex) {
+        return TYPES[typeIndex];
     }
 
     /**
-     * Gets the brand of the tool based on the tool code
+     * Returns the tool brand at a brand index
+     * @param brandIndex - index returned by getBrandIndex()
      * @return - String representing tool brand
      */
-    private String toolBrand() throws Exception {
-        switch (this.getToolCode().substring(3)) {
-            case "W":
-                return "Werner";
-
-            case "S":
-                return "Stihl";
-
-            case "R":
-                return "Ridgid";
+    public static String brandName(int brandIndex) {
+        return BRANDS[brandIndex];
+    }
 
-            case "D":
-                return "DeWalt";
+    /**
+     * Returns the tool code of a type and brand
+     * @param typeIndex - index returned by getTypeIndex()
+     * @param brandIndex - index returned by getBrandIndex()
+     * @return - String representing the tool code
+     */
+    static String toolCode(int typeIndex, int brandIndex) {
+        return TYPE_CODES[typeIndex] + BRAND_CODES[brandIndex];
+    }
 
-            default:
-                throw new Exception("Invalid tool code entered: " + this.toolCode);
+    /**
+     * @param toolCode - tool code such as LADW, may be null
+     * @return - int representing the type index of the code's type part, -1 if it has none
+     */
+    static int typeIndex(String toolCode) {
+        if (toolCode == null) {
+            return -1;
         }
+        for (int i = 0; i < TYPE_CODES.length; i++) {
+            if (toolCode.startsWith(TYPE_CODES[i])) {
+                return i;
+            }
+        }
+        return -1;
     }
 
-    public String getToolCode() {
-        return this.toolCode;
+    /**
+     * @param toolCode - tool code starting with a type code
+     * @return - int representing the brand index of the code's brand part, -1 if it has none
+     */
+    static int brandIndex(String toolCode) {
+        for (int i = 0; i < BRAND_CODES.length; i++) {
+            if (toolCode.length() == 3 + BRAND_CODES[i].length() && toolCode.endsWith(BRAND_CODES[i])) {
+                return i;
+            }
+        }
+        return -1;
     }
-    public String getType() { return this.toolType; }
-    public String getBrand() { return this.brand; }
 
     /**
      * Returns a boolean representing if the tool charges for weekend days
      * @return - boolean
+     * @deprecated - read PricingPolicy.weekendCharge(tool) from the snapshot the rental is priced under
      */
+    @Deprecated
     public boolean weekendCharge() {
-        switch (this.toolType) {
-            case "Ladder":
-                return true;
-
-            case "Chainsaw":
-                return false;
-
-            case "Jackhammer":
-                return false;
-        }
-        return false;
+        return PricingPolicy.current().weekendCharge(this);
     }
 
     /**
      * Returns a boolean representing if the tool charges for holidays
      * @return - boolean
+     * @deprecated - read PricingPolicy.holidayCharge(tool) from the snapshot the rental is priced under
      */
+    @Deprecated
     public boolean holidayCharge() {
-        switch (this.toolType) {
-            case "Ladder":
-                return false;
-
-            case "Chainsaw":
-                return true;
-
-            case "Jackhammer":
-                return false;
-        }
-        return false;
+        return PricingPolicy.current().holidayCharge(this);
     }
 }
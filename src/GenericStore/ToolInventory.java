@@ -0,0 +1,573 @@
+package GenericStore;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps track of the physical units of each tool code and the periods they are booked for.
+ * Bookings are stored as [checkoutDate, returnDate) epoch day intervals, sorted per unit, so an overlap check is a
+ * binary search. Each tool code has its own lock, so checkouts of different tool codes never contend with each other.
+ * When given a BookingDemand, every reserved and released booking is also added to or removed from it, so demand
+ * based pricing sees the same bookings as the inventory.
+ */
+public class ToolInventory {
+
+    private final ConcurrentHashMap<String, UnitPool> pools = new ConcurrentHashMap<>();
+    //number of units owned of each tool type, indexed by Tool.getTypeIndex()
+    private final AtomicIntegerArray unitsPerType = new AtomicIntegerArray(Tool.TYPE_COUNT);
+    //null if bookings are not tracked for demand
+    private final BookingDemand demand;
+
+    public ToolInventory() {
+        this(null);
+    }
+
+    /**
+     * @param demand - receives every booking reserved or released, null to not track demand
+     */
+    public ToolInventory(BookingDemand demand) {
+        this.demand = demand;
+    }
+
+    /**
+     * Adds physical units for a tool code
+     * @param toolCode - code of the tool the units belong to
+     * @param count - number of units to add
+     * @return - int representing the total number of units for the tool code
+     * @throws Exception - if the tool code is invalid or the count is not positive
+     */
+    public int addUnits(String toolCode, int count) throws Exception {
+        if (count < 1) {
+            throw new Exception("Unit count must be greater than 0.");
+        }
+        //validates the tool code
+        Tool tool = new Tool(toolCode);
+
+        UnitPool pool = pools.computeIfAbsent(toolCode, code -> new UnitPool(tool));
+        pool.lock.writeLock().lock();
+        try {
+            unitsPerType.addAndGet(tool.getTypeIndex(), count);
+            return pool.addUnits(count);
+        } finally {
+            pool.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of units owned for a tool code
+     * @param toolCode - code of the tool
+     * @return - int representing the number of units, 0 if the tool code has none
+     */
+    public int getUnitCount(String toolCode) {
+        UnitPool pool = pools.get(toolCode);
+        if (pool == null) {
+            return 0;
+        }
+        pool.lock.readLock().lock();
+        try {
+            return pool.unitCount;
+        } finally {
+            pool.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of units owned of a tool type, over every brand
+     * @param typeIndex - index from Tool.getTypeIndex()
+     * @return - int representing the number of units
+     */
+    public int getTypeUnitCount(int typeIndex) {
+        return unitsPerType.get(typeIndex);
+    }
+
+    /**
+     * @return - BookingDemand the bookings are added to, null if demand is not tracked
+     */
+    public BookingDemand getDemand() {
+        return this.demand;
+    }
+
+    /**
+     * Finds the lowest numbered unit that is free for the whole rental period without booking it.
+     * Groups of units where no unit is free for the whole rental period are skipped as a whole, so the search tests
+     * one group per level of the tree whatever the bookings are.
+     * @param toolCode - code of the tool being rented
+     * @param checkoutDate - date String representing the checkout date
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - int representing the unit index, -1 if no unit is available
+     * @throws IllegalArgumentException - if rentalDays is less than 1
+     */
+    public int firstAvailableUnit(String toolCode, String checkoutDate, int rentalDays) {
+        checkRentalDays(rentalDays);
+        UnitPool pool = pools.get(toolCode);
+        if (pool == null) {
+            return -1;
+        }
+        int start = EpochDayUtil.parse(checkoutDate);
+        pool.lock.readLock().lock();
+        try {
+            return pool.findAvailable(start, start + rentalDays);
+        } finally {
+            pool.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Books the first available unit for the rental period
+     * @param toolCode - code of the tool being rented
+     * @param checkoutDate - date String representing the checkout date
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - int representing the booked unit index, -1 if no unit is available
+     * @throws IllegalArgumentException - if rentalDays is less than 1
+     */
+    public int reserve(String toolCode, String checkoutDate, int rentalDays) {
+        checkRentalDays(rentalDays);
+        UnitPool pool = pools.get(toolCode);
+        if (pool == null) {
+            return -1;
+        }
+        int start = EpochDayUtil.parse(checkoutDate);
+        int end = start + rentalDays;
+        pool.lock.writeLock().lock();
+        try {
+            int unit = pool.findAvailable(start, end);
+            if (unit >= 0) {
+                pool.book(unit, start, end);
+                if (demand != null) {
+                    demand.book(pool.tool, start, rentalDays);
+                }
+            }
+            return unit;
+        } finally {
+            pool.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a specific unit is free for the whole rental period
+     * @param toolCode - code of the tool being rented
+     * @param unit - index of the unit
+     * @param checkoutDate - date String representing the checkout date
+     * @param rentalDays - the amount of days the tool is being rented
+     * @return - boolean
+     * @throws IllegalArgumentException - if rentalDays is less than 1
+     */
+    public boolean isAvailable(String toolCode, int unit, String checkoutDate, int rentalDays) {
+        checkRentalDays(rentalDays);
+        UnitPool pool = pools.get(toolCode);
+        if (pool == null) {
+            return false;
+        }
+        int start = EpochDayUtil.parse(checkoutDate);
+        pool.lock.readLock().lock();
+        try {
+            return unit >= 0 && unit < pool.unitCount && pool.isFree(unit, start, start + rentalDays);
+        } finally {
+            pool.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the booking of a unit that starts on the checkout date
+     * @param toolCode - code of the rented tool
+     * @param unit - index of the unit
+     * @param checkoutDate - date String representing the checkout date of the booking
+     * @return - boolean representing if a booking was removed
+     */
+    public boolean release(String toolCode, int unit, String checkoutDate) {
+        UnitPool pool = pools.get(toolCode);
+        if (pool == null) {
+            return false;
+        }
+        int start = EpochDayUtil.parse(checkoutDate);
+        pool.lock.writeLock().lock();
+        try {
+            if (unit < 0 || unit >= pool.unitCount) {
+                return false;
+            }
+            int rentalDays = pool.unbook(unit, start);
+            if (rentalDays < 0) {
+                return false;
+            }
+            if (demand != null) {
+                demand.cancel(pool.tool, start, rentalDays);
+            }
+            return true;
+        } finally {
+            pool.lock.writeLock().unlock();
+        }
+    }
+
+    //Return method mostly for unit test purposes
+    /**
+     * @param toolCode - code of the tool
+     * @return - int representing the number of tree nodes the last availability search of the tool code tested
+     */
+    public int getLastSearchNodeCount(String toolCode) {
+        UnitPool pool = pools.get(toolCode);
+        return pool == null ? 0 : pool.lastSearchNodes;
+    }
+
+    /**
+     * A booking needs at least one day, an empty one would fit anywhere and block nothing
+     */
+    private static void checkRentalDays(int rentalDays) {
+        if (rentalDays < 1) {
+            throw new IllegalArgumentException(
+                    RentalInputValidator.message(RentalInputValidator.INVALID_RENTAL_DAYS));
+        }
+    }
+
+    /**
+     * All units of a single tool code.
+     * A unit is free for a rental if the rental fits before its first booking, after its last booking or into a gap
+     * between two bookings. Segment trees over the units hold, for every group of units, the earliest last booking end,
+     * the latest first booking start and every gap between bookings, indexed by where the gap starts with the latest
+     * gap end kept per subtree. Each of the three answers exactly whether some unit of the group is free for the
+     * rental, so the search goes straight down from the root to the lowest free unit, testing one node per level.
+     */
+    private static final class UnitPool {
+        private static final int NOT_BOOKED = Integer.MIN_VALUE;
+        private static final int NO_BOOKINGS = Integer.MAX_VALUE;
+        private static final int NO_UNIT = Integer.MAX_VALUE;
+        private static final int NO_GAP = Integer.MIN_VALUE;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Tool tool;
+        private final SplittableRandom priorities = new SplittableRandom();
+
+        private int unitCount;
+        //per unit booking starts and ends, sorted and never overlapping
+        private int[][] starts = new int[0][];
+        private int[][] ends = new int[0][];
+        private int[] sizes = new int[0];
+
+        //number of leaves in the segment trees, always a power of 2
+        private int leaves = 1;
+        //min of the day each unit is booked until (the end of its last booking)
+        private int[] bookedUntil = {NO_UNIT, NO_UNIT};
+        //max of the day each unit is booked from (the start of its first booking)
+        private int[] bookedFrom = {NOT_BOOKED, NOT_BOOKED};
+        //the gaps between bookings of the units below each node, as a treap ordered by gap start
+        private Gap[] gaps = new Gap[2];
+
+        //nodes tested by the last search
+        private int lastSearchNodes;
+
+        private UnitPool(Tool tool) {
+            this.tool = tool;
+        }
+
+        private int addUnits(int count) {
+            int newCount = unitCount + count;
+            starts = Arrays.copyOf(starts, newCount);
+            ends = Arrays.copyOf(ends, newCount);
+            sizes = Arrays.copyOf(sizes, newCount);
+            for (int unit = unitCount; unit < newCount; unit++) {
+                starts[unit] = new int[4];
+                ends[unit] = new int[4];
+            }
+            if (newCount > leaves) {
+                int oldLeaves = leaves;
+                while (leaves < newCount) {
+                    leaves <<= 1;
+                }
+                bookedUntil = grow(bookedUntil, oldLeaves, NO_UNIT);
+                bookedFrom = grow(bookedFrom, oldLeaves, NOT_BOOKED);
+                //every node moves, so the gaps are indexed again
+                gaps = new Gap[leaves * 2];
+                for (int unit = 0; unit < unitCount; unit++) {
+                    for (int i = 1; i < sizes[unit]; i++) {
+                        addGap(unit, ends[unit][i - 1], starts[unit][i]);
+                    }
+                }
+            }
+            for (int unit = unitCount; unit < newCount; unit++) {
+                bookedUntil[leaves + unit] = NOT_BOOKED;
+                bookedFrom[leaves + unit] = NO_BOOKINGS;
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                combine(node);
+            }
+            unitCount = newCount;
+
+            return unitCount;
+        }
+
+        /**
+         * Copies the leaves of a tree into a tree with the current number of leaves, filling the rest with a value
+         * that never fits a rental
+         */
+        private int[] grow(int[] tree, int oldLeaves, int empty) {
+            int[] grown = new int[leaves * 2];
+            Arrays.fill(grown, empty);
+            System.arraycopy(tree, oldLeaves, grown, leaves, unitCount);
+            return grown;
+        }
+
+        /**
+         * Returns the lowest free unit, -1 if there is none
+         */
+        private int findAvailable(int start, int end) {
+            lastSearchNodes = 1;
+            if (!fits(1, start, end)) {
+                return -1;
+            }
+            int node = 1;
+            while (node < leaves) {
+                //a unit of the node fits, so if none on the left does one on the right must
+                lastSearchNodes++;
+                node = fits(2 * node, start, end) ? 2 * node : 2 * node + 1;
+            }
+            return node - leaves;
+        }
+
+        /**
+         * @return - boolean representing if some unit below the node is free for [start, end)
+         */
+        private boolean fits(int node, int start, int end) {
+            return bookedUntil[node] <= start
+                    || bookedFrom[node] >= end
+                    || Gap.latestEnd(gaps[node], start) >= end;
+        }
+
+        private boolean isFree(int unit, int start, int end) {
+            int index = firstStartAtOrAfter(unit, end);
+            return index == 0 || ends[unit][index - 1] <= start;
+        }
+
+        private void book(int unit, int start, int end) {
+            int size = sizes[unit];
+            if (size == starts[unit].length) {
+                starts[unit] = Arrays.copyOf(starts[unit], size * 2);
+                ends[unit] = Arrays.copyOf(ends[unit], size * 2);
+            }
+            int index = firstStartAtOrAfter(unit, end);
+            //the booking splits the gap it lands in
+            if (index > 0 && index < size) {
+                removeGap(unit, ends[unit][index - 1], starts[unit][index]);
+            }
+            if (index > 0) {
+                addGap(unit, ends[unit][index - 1], start);
+            }
+            if (index < size) {
+                addGap(unit, end, starts[unit][index]);
+            }
+            System.arraycopy(starts[unit], index, starts[unit], index + 1, size - index);
+            System.arraycopy(ends[unit], index, ends[unit], index + 1, size - index);
+            starts[unit][index] = start;
+            ends[unit][index] = end;
+            sizes[unit] = size + 1;
+            updateTrees(unit);
+        }
+
+        /**
+         * @return - int representing the length of the removed booking in days, -1 if the unit has no booking there
+         */
+        private int unbook(int unit, int start) {
+            int size = sizes[unit];
+            int index = Arrays.binarySearch(starts[unit], 0, size, start);
+            if (index < 0) {
+                return -1;
+            }
+            int end = ends[unit][index];
+            //the gaps on both sides of the booking join
+            if (index > 0) {
+                removeGap(unit, ends[unit][index - 1], start);
+            }
+            if (index < size - 1) {
+                removeGap(unit, end, starts[unit][index + 1]);
+            }
+            if (index > 0 && index < size - 1) {
+                addGap(unit, ends[unit][index - 1], starts[unit][index + 1]);
+            }
+            System.arraycopy(starts[unit], index + 1, starts[unit], index, size - index - 1);
+            System.arraycopy(ends[unit], index + 1, ends[unit], index, size - index - 1);
+            sizes[unit] = size - 1;
+            updateTrees(unit);
+
+            return end - start;
+        }
+
+        /**
+         * Binary search for the first booking of a unit that starts on or after the given day
+         */
+        private int firstStartAtOrAfter(int unit, int day) {
+            int low = 0;
+            int high = sizes[unit];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[unit][mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Adds the gap [start, end) of a unit to the node of the unit and every node above it. Back to back bookings
+         * leave no gap
+         */
+        private void addGap(int unit, int start, int end) {
+            if (start < end) {
+                for (int node = leaves + unit; node > 0; node >>= 1) {
+                    gaps[node] = Gap.insert(gaps[node], new Gap(start, end, unit, priorities.nextInt()));
+                }
+            }
+        }
+
+        private void removeGap(int unit, int start, int end) {
+            if (start < end) {
+                for (int node = leaves + unit; node > 0; node >>= 1) {
+                    gaps[node] = Gap.remove(gaps[node], start, unit);
+                }
+            }
+        }
+
+        private void updateTrees(int unit) {
+            int size = sizes[unit];
+            int node = leaves + unit;
+            //bookings never overlap, so the last booking also ends last
+            bookedUntil[node] = size == 0 ? NOT_BOOKED : ends[unit][size - 1];
+            bookedFrom[node] = size == 0 ? NO_BOOKINGS : starts[unit][0];
+            for (node >>= 1; node > 0; node >>= 1) {
+                combine(node);
+            }
+        }
+
+        private void combine(int node) {
+            bookedUntil[node] = Math.min(bookedUntil[2 * node], bookedUntil[2 * node + 1]);
+            bookedFrom[node] = Math.max(bookedFrom[2 * node], bookedFrom[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Treap node for the gap [start, end) between two bookings of a unit, ordered by start and then unit. Each node
+     * keeps the latest end of its subtree, so the latest end of the gaps starting on or before a day is found in one
+     * walk down the treap
+     */
+    private static final class Gap {
+        private final int start;
+        private final int end;
+        private final int unit;
+        private final int priority;
+        private int latestEnd;
+        private Gap left;
+        private Gap right;
+
+        private Gap(int start, int end, int unit, int priority) {
+            this.start = start;
+            this.end = end;
+            this.unit = unit;
+            this.priority = priority;
+            this.latestEnd = end;
+        }
+
+        /**
+         * @return - int representing the latest end of the gaps that start on or before the day, NO_GAP if none do
+         */
+        private static int latestEnd(Gap root, int day) {
+            int latest = UnitPool.NO_GAP;
+            for (Gap gap = root; gap != null; ) {
+                if (gap.start <= day) {
+                    latest = Math.max(latest, gap.end);
+                    if (gap.left != null) {
+                        latest = Math.max(latest, gap.left.latestEnd);
+                    }
+                    gap = gap.right;
+                } else {
+                    gap = gap.left;
+                }
+            }
+            return latest;
+        }
+
+        private static Gap insert(Gap root, Gap gap) {
+            if (root == null) {
+                return gap;
+            }
+            if (gap.priority > root.priority) {
+                Gap[] split = split(root, gap.start, gap.unit);
+                gap.left = split[0];
+                gap.right = split[1];
+                return gap.update();
+            }
+            if (before(gap.start, gap.unit, root)) {
+                root.left = insert(root.left, gap);
+            } else {
+                root.right = insert(root.right, gap);
+            }
+            return root.update();
+        }
+
+        private static Gap remove(Gap root, int start, int unit) {
+            if (root == null) {
+                return null;
+            }
+            if (root.start == start && root.unit == unit) {
+                return merge(root.left, root.right);
+            }
+            if (before(start, unit, root)) {
+                root.left = remove(root.left, start, unit);
+            } else {
+                root.right = remove(root.right, start, unit);
+            }
+            return root.update();
+        }
+
+        /**
+         * Splits a treap into the gaps ordered before (start, unit) and the rest
+         */
+        private static Gap[] split(Gap root, int start, int unit) {
+            if (root == null) {
+                return new Gap[2];
+            }
+            Gap[] split;
+            if (before(start, unit, root)) {
+                split = split(root.left, start, unit);
+                root.left = split[1];
+                split[1] = root.update();
+            } else {
+                split = split(root.right, start, unit);
+                root.right = split[0];
+                split[0] = root.update();
+            }
+            return split;
+        }
+
+        private static Gap merge(Gap left, Gap right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                return left.update();
+            }
+            right.left = merge(left, right.left);
+            return right.update();
+        }
+
+        private static boolean before(int start, int unit, Gap gap) {
+            return start < gap.start || (start == gap.start && unit < gap.unit);
+        }
+
+        private Gap update() {
+            latestEnd = end;
+            if (left != null) {
+                latestEnd = Math.max(latestEnd, left.latestEnd);
+            }
+            if (right != null) {
+                latestEnd = Math.max(latestEnd, right.latestEnd);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package GenericStoreBenchmarks;
+
+import GenericStore.BatchDayCounter;
+import GenericStore.EpochDayUtil;
+import GenericStore.PricingPolicy;
+import GenericStore.Tool;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares BatchDayCounter.count() against counting one rental at a time with the PricingPolicy. Tool codes are
+ * resolved into tool flags once, before timing, and both sides read the same flags under the same policy and fill the
+ * same three output arrays, so they only differ in how the days are counted.
+ * Usage: BatchDayCounterBenchmark [rows] [rounds]
+ */
+public final class BatchDayCounterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 20;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        PricingPolicy policy = PricingPolicy.DEFAULT;
+        Tool[] tools = {new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR"), new Tool("JAKD")};
+        int firstDay = EpochDayUtil.epochDay(2000, 1, 1);
+        int dayCount = EpochDayUtil.epochDay(2100, 1, 1) - firstDay;
+
+        //rentals of 1 to 90 days on random dates, like a day's worth of point of sale rentals
+        SplittableRandom random = new SplittableRandom(421);
+        int[] checkoutDays = new int[rows];
+        int[] rentalDays = new int[rows];
+        int[] toolFlags = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            checkoutDays[i] = firstDay + random.nextInt(dayCount);
+            rentalDays[i] = 1 + random.nextInt(90);
+            toolFlags[i] = BatchDayCounter.toolFlags(policy, tools[random.nextInt(tools.length)]);
+        }
+        int[] weekendDays = new int[rows];
+        int[] holidays = new int[rows];
+        int[] chargeableDays = new int[rows];
+
+        long scalarBest = Long.MAX_VALUE;
+        long batchBest = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                int flags = toolFlags[i];
+                weekendDays[i] = policy.weekendDays(checkoutDays[i], rentalDays[i]);
+                holidays[i] = policy.holidays(checkoutDays[i], rentalDays[i]);
+                chargeableDays[i] = rentalDays[i]
+                        - ((flags & BatchDayCounter.WEEKEND_CHARGE) != 0 ? 0 : weekendDays[i])
+                        - ((flags & BatchDayCounter.HOLIDAY_CHARGE) != 0 ? 0 : holidays[i]);
+            }
+            scalarBest = Math.min(scalarBest, System.nanoTime() - start);
+            checksum += chargeableDays[round % rows];
+
+            start = System.nanoTime();
+            BatchDayCounter.count(policy, checkoutDays, rentalDays, toolFlags, weekendDays, holidays, chargeableDays,
+                    rows);
+            batchBest = Math.min(batchBest, System.nanoTime() - start);
+            checksum += chargeableDays[round % rows];
+        }
+
+        System.out.printf("rows: %d, best of %d rounds%n", rows, rounds);
+        System.out.printf("scalar: %.1f ns/rental%n", (double) scalarBest / rows);
+        System.out.printf("batch:  %.1f ns/rental%n", (double) batchBest / rows);
+        System.out.printf("speedup: %.1fx (checksum %d)%n", (double) scalarBest / batchBest, checksum);
+    }
+}
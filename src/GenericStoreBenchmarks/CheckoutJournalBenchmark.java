@@ -0,0 +1,69 @@
+package GenericStoreBenchmarks;
+
+import GenericStore.CheckoutJournal;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures CheckoutJournal throughput and commit latency with many concurrent writers.
+ * Usage: CheckoutJournalBenchmark [writers] [records per writer] [commit interval millis]
+ */
+public final class CheckoutJournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int recordsPerWriter = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long commitIntervalMillis = args.length > 2 ? Long.parseLong(args[2]) : 2;
+
+        RentalQuote quote = new RentalQuote(5, "7/2/24", new Tool("LADW"), 10);
+        Path file = Files.createTempFile("checkout-benchmark", ".journal");
+        long[] latencies = new long[writers * recordsPerWriter];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[writers];
+        long elapsed;
+        try (CheckoutJournal journal = new CheckoutJournal(file, commitIntervalMillis)) {
+            for (int writer = 0; writer < writers; writer++) {
+                int offset = writer * recordsPerWriter;
+                threads[writer] = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < recordsPerWriter; i++) {
+                            long begin = System.nanoTime();
+                            journal.record(quote);
+                            latencies[offset + i] = System.nanoTime() - begin;
+                        }
+                    } catch (InterruptedException | IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                threads[writer].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        Arrays.sort(latencies);
+        System.out.printf("writers: %d, records: %d, commit interval: %d ms%n",
+                writers, latencies.length, commitIntervalMillis);
+        System.out.printf("throughput: %.0f records/s%n", latencies.length / (elapsed / 1e9));
+        System.out.printf("commit latency p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,282 @@
+package GenericStoreBenchmarks;
+
+import GenericStore.EpochDayUtil;
+import GenericStore.RentalAgreement;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives RentalAgreement (or RentalQuote) creation with POS like traffic and writes a latency report.
+ * Usage: PricingLoadGenerator [clients] [checkouts per second] [seconds] [agreement|quote] [report file]
+ *
+ * Each of the clients is a thread that waits for its checkout to be priced before sending the next one (closed
+ * loop), on a fixed schedule that spreads the target rate over all clients. Latency is measured from the time a
+ * checkout was scheduled to be sent, not from when it actually was, so a stall also counts against the checkouts
+ * that queued up behind it (coordinated omission correction). Service time (from the actual send) is reported next
+ * to it for comparison.
+ * Traffic: the tool codes offered by StoreUI, checkout dates in 2015-2030 with most of them in the two weeks
+ * around July 4th and Labor Day, 1 to 90 rental days and mostly no discount.
+ * The first seconds (-Dload.warmUpSeconds, default 5) are not measured.
+ */
+public final class PricingLoadGenerator {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+    private static final int FIRST_YEAR = 2015;
+    private static final int LAST_YEAR = 2030;
+
+    //start to end durations of the garbage collections seen while measuring, in milliseconds. Concurrent collections
+    //are included, so these are not all pause times
+    private static final List<Long> gcDurations = Collections.synchronizedList(new ArrayList<>());
+    private static volatile boolean measuringGc;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String engine = args.length > 3 ? args[3] : "agreement";
+        String reportFile = args.length > 4 ? args[4] : "pricing-load-report.txt";
+        int warmUpSeconds = Integer.getInteger("load.warmUpSeconds", 5);
+        if ((long) rate * seconds < clients) {
+            throw new IllegalArgumentException("Every client needs at least one checkout to send.");
+        }
+
+        listenForGc();
+
+        Tool[] tools = new Tool[TOOL_CODES.length];
+        for (int i = 0; i < tools.length; i++) {
+            tools[i] = new Tool(TOOL_CODES[i]);
+        }
+        boolean quotes = engine.equals("quote");
+
+        run(clients, rate, warmUpSeconds, tools, quotes, 0);
+
+        List<GcTotals> gcBefore = gcTotals();
+        measuringGc = true;
+        long begin = System.nanoTime();
+        Client[] results = run(clients, rate, seconds, tools, quotes, 1);
+        long elapsed = System.nanoTime() - begin;
+        measuringGc = false;
+        List<GcTotals> gcAfter = gcTotals();
+
+        String report = report(clients, rate, seconds, engine, results, elapsed, gcBefore, gcAfter);
+        Files.write(Paths.get(reportFile), report.getBytes(StandardCharsets.UTF_8));
+        System.out.print(report);
+        System.out.println("Report written to " + reportFile);
+    }
+
+    /**
+     * Runs every client on its schedule for the given number of seconds
+     */
+    private static Client[] run(int clients, int rate, int seconds, Tool[] tools, boolean quotes, int seed)
+            throws InterruptedException {
+        double periodNanos = 1e9 / rate;
+        long checkouts = (long) rate * seconds;
+        long start = System.nanoTime() + 10_000_000;
+        CountDownLatch done = new CountDownLatch(clients);
+        Client[] results = new Client[clients];
+        for (int c = 0; c < clients; c++) {
+            //the first clients send the checkouts left over, so every scheduled checkout is sent
+            int clientCheckouts = (int) (checkouts / clients + (c < checkouts % clients ? 1 : 0));
+            Client client = new Client(c, clients, clientCheckouts, periodNanos, start, tools, quotes,
+                    new SplittableRandom(seed * 7919L + c));
+            results[c] = client;
+            Thread thread = new Thread(() -> {
+                client.run();
+                done.countDown();
+            }, "load-client-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        return results;
+    }
+
+    /**
+     * One virtual point of sale, sending its next checkout at start + (checkout * clients + index) * period
+     */
+    private static final class Client {
+        private final int index;
+        private final int clients;
+        private final double periodNanos;
+        private final long start;
+        private final Tool[] tools;
+        private final boolean quotes;
+        private final SplittableRandom random;
+
+        private final long[] latencies;
+        private final long[] serviceTimes;
+        private int completed;
+        private int failed;
+        //keeps the JIT from dropping the unused outputs
+        private long outputLength;
+
+        private Client(int index, int clients, int checkouts, double periodNanos, long start, Tool[] tools,
+                       boolean quotes, SplittableRandom random) {
+            this.index = index;
+            this.clients = clients;
+            this.periodNanos = periodNanos;
+            this.start = start;
+            this.tools = tools;
+            this.quotes = quotes;
+            this.random = random;
+            this.latencies = new long[checkouts];
+            this.serviceTimes = new long[checkouts];
+        }
+
+        private void run() {
+            for (int checkout = 0; checkout < latencies.length; checkout++) {
+                long intended = start + (long) (((long) checkout * clients + index) * periodNanos);
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                Tool tool = tools[random.nextInt(tools.length)];
+                String date = EpochDayUtil.format(checkoutDay(random));
+                int rentalDays = 1 + random.nextInt(90);
+                int discount = random.nextInt(4) == 0 ? 5 * random.nextInt(21) : 0;
+
+                long sent = System.nanoTime();
+                try {
+                    if (quotes) {
+                        outputLength += new RentalQuote(rentalDays, date, tool, discount)
+                                .getRentalQuoteOutput().length();
+                    } else {
+                        outputLength += new RentalAgreement(rentalDays, date, tool, discount)
+                                .getRentalAgreementOutput().length();
+                    }
+                } catch (Exception e) {
+                    failed++;
+                }
+                long end = System.nanoTime();
+                latencies[completed] = end - intended;
+                serviceTimes[completed] = end - sent;
+                completed++;
+            }
+        }
+    }
+
+    /**
+     * Picks a checkout date: 35% within a week of July 4th, 35% within a week of Labor Day, the rest anywhere
+     */
+    private static int checkoutDay(SplittableRandom random) {
+        int year = FIRST_YEAR + random.nextInt(LAST_YEAR - FIRST_YEAR + 1);
+        int pick = random.nextInt(100);
+        if (pick < 35) {
+            return EpochDayUtil.epochDay(year, 7, 4) + random.nextInt(15) - 7;
+        }
+        if (pick < 70) {
+            return EpochDayUtil.laborDay(year) + random.nextInt(15) - 7;
+        }
+        return EpochDayUtil.epochDay(year, 1, 1) + random.nextInt(365);
+    }
+
+    private static String report(int clients, int rate, int seconds, String engine, Client[] results, long elapsed,
+                                 List<GcTotals> gcBefore, List<GcTotals> gcAfter) {
+        int total = 0;
+        int failed = 0;
+        for (Client client : results) {
+            total += client.completed;
+            failed += client.failed;
+        }
+        long[] latencies = new long[total];
+        long[] serviceTimes = new long[total];
+        int offset = 0;
+        for (Client client : results) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.completed);
+            System.arraycopy(client.serviceTimes, 0, serviceTimes, offset, client.completed);
+            offset += client.completed;
+        }
+        Arrays.sort(latencies);
+        Arrays.sort(serviceTimes);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("engine: %s, clients: %d, target: %d checkouts/s, duration: %d s%n",
+                engine, clients, rate, seconds));
+        report.append(String.format("checkouts: %d, failed: %d, throughput: %.0f checkouts/s%n",
+                total, failed, total / (elapsed / 1e9)));
+        report.append(String.format("latency from schedule p50: %.3f ms, p99: %.3f ms, p99.9: %.3f ms, max: %.3f ms%n",
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6,
+                percentile(latencies, 0.999) / 1e6, latencies[total - 1] / 1e6));
+        report.append(String.format("service time p50: %.3f ms, p99: %.3f ms, p99.9: %.3f ms, max: %.3f ms%n",
+                percentile(serviceTimes, 0.50) / 1e6, percentile(serviceTimes, 0.99) / 1e6,
+                percentile(serviceTimes, 0.999) / 1e6, serviceTimes[total - 1] / 1e6));
+
+        for (int i = 0; i < gcAfter.size(); i++) {
+            GcTotals after = gcAfter.get(i);
+            GcTotals before = gcBefore.get(i);
+            report.append(String.format("gc %s: %d collections, %d ms total%n",
+                    after.name, after.count - before.count, after.millis - before.millis));
+        }
+        List<Long> durations;
+        synchronized (gcDurations) {
+            durations = new ArrayList<>(gcDurations);
+        }
+        if (!durations.isEmpty()) {
+            Collections.sort(durations);
+            report.append(String.format("gc durations (start to end, concurrent collections included): %d, "
+                            + "p50: %d ms, p99: %d ms, max: %d ms%n", durations.size(),
+                    durations.get((int) Math.ceil(0.50 * durations.size()) - 1),
+                    durations.get((int) Math.ceil(0.99 * durations.size()) - 1),
+                    durations.get(durations.size() - 1)));
+        }
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    /**
+     * Records the duration of every collection while measuring. Uses the HotSpot GC notifications, on other JVMs
+     * only the collection counts and totals are reported
+     */
+    private static void listenForGc() {
+        NotificationListener listener = (notification, handback) -> {
+            if (measuringGc && notification.getType().equals("com.sun.management.gc.notification")) {
+                CompositeData info = (CompositeData) notification.getUserData();
+                CompositeData gcInfo = (CompositeData) info.get("gcInfo");
+                gcDurations.add((Long) gcInfo.get("duration"));
+            }
+        };
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter) {
+                ((NotificationEmitter) bean).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    private static List<GcTotals> gcTotals() {
+        List<GcTotals> totals = new ArrayList<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals.add(new GcTotals(bean.getName(), bean.getCollectionCount(), bean.getCollectionTime()));
+        }
+        return totals;
+    }
+
+    private static final class GcTotals {
+        private final String name;
+        private final long count;
+        private final long millis;
+
+        private GcTotals(String name, long count, long millis) {
+            this.name = name;
+            this.count = count;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package GenericStoreBenchmarks;
+
+import GenericStore.RentalInputValidator;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares importing rows through RentalInputValidator.quote() against the throwing constructors of Tool and
+ * RentalQuote with a try/catch per row. Both sides price every valid row and count every rejected one.
+ * Bad rows take turns being wrong in each way the validator reports: rental days, discount, tool type, tool brand and
+ * checkout date.
+ * Usage: RentalInputValidatorBenchmark [rows] [bad percent] [rounds]
+ */
+public final class RentalInputValidatorBenchmark {
+    private static final String[] TOOL_CODES = {"LADW", "CHNS", "JAKR", "JAKD"};
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1 << 18;
+        int badPercent = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        SplittableRandom random = new SplittableRandom(36);
+        String[] toolCodes = new String[rows];
+        String[] checkoutDates = new String[rows];
+        int[] rentalDays = new int[rows];
+        int[] discounts = new int[rows];
+        int bad = 0;
+        for (int i = 0; i < rows; i++) {
+            toolCodes[i] = TOOL_CODES[random.nextInt(TOOL_CODES.length)];
+            checkoutDates[i] = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + random.nextInt(100);
+            rentalDays[i] = 1 + random.nextInt(30);
+            discounts[i] = random.nextInt(101);
+            if (random.nextInt(100) < badPercent) {
+                switch (bad++ % 5) {
+                    case 0:
+                        rentalDays[i] = 0;
+                        break;
+                    case 1:
+                        discounts[i] = 101;
+                        break;
+                    case 2:
+                        toolCodes[i] = "HAMR";
+                        break;
+                    case 3:
+                        toolCodes[i] = "LADX";
+                        break;
+                    default:
+                        checkoutDates[i] = "2/30/20";
+                }
+            }
+        }
+
+        long throwingBest = Long.MAX_VALUE;
+        long validatorBest = Long.MAX_VALUE;
+        long throwingRejected = 0;
+        long validatorRejected = 0;
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            throwingRejected = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                try {
+                    RentalQuote quote = new RentalQuote(rentalDays[i], checkoutDates[i], new Tool(toolCodes[i]),
+                            discounts[i]);
+                    checksum += quote.getFinalChargeCents();
+                } catch (Exception e) {
+                    throwingRejected++;
+                }
+            }
+            throwingBest = Math.min(throwingBest, System.nanoTime() - start);
+
+            RentalInputValidator validator = new RentalInputValidator();
+            start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                RentalQuote quote = validator.quote(toolCodes[i], checkoutDates[i], rentalDays[i], discounts[i]);
+                if (quote != null) {
+                    checksum += quote.getFinalChargeCents();
+                }
+            }
+            validatorBest = Math.min(validatorBest, System.nanoTime() - start);
+            validatorRejected = validator.getRejectedCount();
+        }
+
+        System.out.printf("rows: %d, %d rejected, best of %d rounds%n", rows, validatorRejected, rounds);
+        if (throwingRejected != validatorRejected) {
+            throw new IllegalStateException("Both sides must reject the same rows, the throwing constructors rejected "
+                    + throwingRejected);
+        }
+        System.out.printf("throwing:  %.1f ns/row%n", (double) throwingBest / rows);
+        System.out.printf("validator: %.1f ns/row%n", (double) validatorBest / rows);
+        System.out.printf("speedup: %.1fx (checksum %d)%n", (double) throwingBest / validatorBest, checksum);
+    }
+}
@@ -0,0 +1,104 @@
+package GenericStoreBenchmarks;
+
+import GenericStore.RentalAgreement;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures time to first quote in fresh JVMs, comparing RentalAgreement (doubles, BigDecimal rounding and
+ * DecimalFormat output) against RentalQuote (whole cents). Both count days on epoch days through PricingPolicy, so
+ * the difference is the money math and formatting, not Calendar.
+ * Usage: StartupBenchmark [runs] - starts runs JVMs per mode and prints the median of each
+ *        StartupBenchmark agreement|quote|warm-quote - prices a single rental and prints the microseconds it took
+ * Extra JVM options for the child JVMs (e.g. -XX:SharedArchiveFile=pricing.jsa) can be passed with
+ * -Dstartup.jvmOptions="..."
+ */
+public final class StartupBenchmark {
+    private static final String[] MODES = {"agreement", "quote", "warm-quote"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && Arrays.asList(MODES).contains(args[0])) {
+            System.out.println(firstQuoteMicros(args[0]));
+            return;
+        }
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        for (String mode : MODES) {
+            List<Long> firstQuote = new ArrayList<>();
+            List<Long> process = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                firstQuote.add(runChild(mode));
+                process.add((System.nanoTime() - start) / 1000);
+            }
+            System.out.printf("%-10s first quote: %6d us, whole JVM: %6d us (median of %d)%n",
+                    mode, median(firstQuote), median(process), runs);
+        }
+    }
+
+    /**
+     * Prices one rental the requested way, timed from the start of main
+     */
+    private static long firstQuoteMicros(String mode) throws Exception {
+        long start = System.nanoTime();
+        String output;
+        switch (mode) {
+            case "agreement":
+                output = new RentalAgreement(5, "7/2/24", new Tool("LADW"), 10).getRentalAgreementOutput();
+                break;
+            case "warm-quote":
+                //warm up is not counted, it would run before the worker takes requests
+                RentalQuote.warmUp();
+                start = System.nanoTime();
+                output = new RentalQuote(5, "7/2/24", new Tool("LADW"), 10).getRentalQuoteOutput();
+                break;
+            default:
+                output = new RentalQuote(5, "7/2/24", new Tool("LADW"), 10).getRentalQuoteOutput();
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        if (output.isEmpty()) {
+            throw new IllegalStateException("Empty output");
+        }
+        return micros;
+    }
+
+    private static long runChild(String mode) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        String jvmOptions = System.getProperty("startup.jvmOptions", "").trim();
+        if (!jvmOptions.isEmpty()) {
+            command.addAll(Arrays.asList(jvmOptions.split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBenchmark.class.getName());
+        command.add(mode);
+
+        //the timing is the last line printed, anything the JVM writes to stderr comes before it
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String line = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String next = reader.readLine(); next != null; next = reader.readLine()) {
+                line = next;
+            }
+        }
+        if (process.waitFor() != 0 || line == null) {
+            throw new IllegalStateException("Child JVM failed for mode " + mode);
+        }
+        return Long.parseLong(line.trim());
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,87 @@
+package GenericStoreTests;
+
+import GenericStore.AgreementColumnStore;
+import GenericStore.EpochDayUtil;
+import GenericStore.RentalAgreement;
+import GenericStore.Tool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+final class AgreementColumnStoreTest {
+
+    private AgreementColumnStore store;
+
+    /**
+     * Store the doc scenarios 2-6 in chunks of 2 rows, so the rows span 3 chunks
+     */
+    @BeforeAll
+    void createStore() throws Exception {
+        store = new AgreementColumnStore(2);
+        store.append(new RentalAgreement(3, "7/2/20", new Tool("LADW"), 10));
+        store.append(new RentalAgreement(5, "7/2/15", new Tool("CHNS"), 25));
+        store.append(new RentalAgreement(6, "9/3/15", new Tool("JAKD"), 0));
+        store.append(new RentalAgreement(9, "7/2/15", new Tool("JAKR"), 0));
+        store.append(new RentalAgreement(6, "7/2/20", new Tool("JAKR"), 50));
+    }
+
+    @Test
+    void revenueByToolType() throws Exception {
+        long[] revenue = store.revenueByToolType();
+
+        assertEquals(5, store.getRowCount());
+        assertEquals(358, revenue[new Tool("LADW").getTypeIndex()]);
+        assertEquals(335, revenue[new Tool("CHNS").getTypeIndex()]);
+        //8.97 + 14.95 + 4.48
+        assertEquals(2840, revenue[new Tool("JAKR").getTypeIndex()]);
+
+        long[] brandRevenue = store.revenueByBrand();
+        assertEquals(1943, brandRevenue[new Tool("JAKR").getBrandIndex()]);
+        assertEquals(897, brandRevenue[new Tool("JAKD").getBrandIndex()]);
+    }
+
+    @Test
+    void totalDiscount() {
+        //0.40 + 1.12 + 4.49
+        assertEquals(601, store.totalDiscountCents());
+    }
+
+    @Test
+    void utilizationByMonth() {
+        long[][] utilization2015 = store.utilizationByMonth(2015);
+        //July 2015 agreements rented for 5 and 9 days, charged for 3 and 5
+        assertEquals(14, utilization2015[6][0]);
+        assertEquals(8, utilization2015[6][1]);
+        assertEquals(6, utilization2015[8][0]);
+        assertEquals(3, utilization2015[8][1]);
+        assertEquals(0, utilization2015[7][0]);
+
+        long[][] utilization2020 = store.utilizationByMonth(2020);
+        assertEquals(9, utilization2020[6][0]);
+        assertEquals(5, utilization2020[6][1]);
+    }
+
+    /**
+     * Rows appended from already priced values and the first/last day of the year
+     */
+    @Test
+    void appendPricedValues() throws Exception {
+        AgreementColumnStore priced = new AgreementColumnStore(3);
+        Tool ladder = new Tool("LADW");
+        priced.append(ladder, EpochDayUtil.parse("1/1/24"), 4, 4, 0, 796);
+        priced.append(ladder, EpochDayUtil.parse("12/31/24"), 2, 2, 40, 358);
+        priced.append(ladder, EpochDayUtil.parse("1/1/25"), 1, 1, 0, 199);
+
+        long[][] utilization = priced.utilizationByMonth(2024);
+        assertEquals(4, utilization[0][0]);
+        assertEquals(2, utilization[11][0]);
+        assertEquals(1353, priced.revenueByToolType()[ladder.getTypeIndex()]);
+
+        priced.clear();
+        assertEquals(0, priced.getRowCount());
+        assertEquals(0, priced.totalDiscountCents());
+    }
+}
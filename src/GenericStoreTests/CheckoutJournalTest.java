@@ -0,0 +1,181 @@
+package GenericStoreTests;
+
+import GenericStore.CheckoutJournal;
+import GenericStore.EpochDayUtil;
+import GenericStore.PricingPolicy;
+import GenericStore.RentalAgreement;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class CheckoutJournalTest {
+
+    /**
+     * Record an agreement and a quote, then check everything is read back after closing
+     */
+    @Test
+    void recordAndReplay() throws Exception {
+        Path file = Files.createTempFile("checkouts", ".journal");
+        try {
+            try (CheckoutJournal journal = new CheckoutJournal(file, 2)) {
+                journal.record(new RentalAgreement(5, "7/2/15", new Tool("CHNS"), 25));
+                journal.record(new RentalQuote(6, "7/2/20", new Tool("JAKR"), 50));
+            }
+
+            List<CheckoutJournal.Entry> entries = new ArrayList<>();
+            assertEquals(2, CheckoutJournal.replay(file, entries::add));
+
+            CheckoutJournal.Entry chainsaw = entries.get(0);
+            assertEquals("CHNS", chainsaw.getToolCode());
+            assertEquals(EpochDayUtil.parse("7/2/15"), chainsaw.getCheckoutDay());
+            assertEquals(5, chainsaw.getRentalDays());
+            assertEquals(25, chainsaw.getDiscountPercentage());
+            assertEquals(3, chainsaw.getChargeableDays());
+            assertEquals(149, chainsaw.getDailyRentalChargeCents());
+            assertEquals(447, chainsaw.getPreDiscountChargeCents());
+            assertEquals(112, chainsaw.getDiscountAmountCents());
+            assertEquals(335, chainsaw.getFinalChargeCents());
+            assertEquals(PricingPolicy.DEFAULT.getVersion(), chainsaw.getPolicyVersion());
+
+            CheckoutJournal.Entry jackhammer = entries.get(1);
+            assertEquals("JAKR", jackhammer.getToolCode());
+            assertEquals(449, jackhammer.getDiscountAmountCents());
+            assertEquals(448, jackhammer.getFinalChargeCents());
+            assertEquals(PricingPolicy.DEFAULT.getVersion(), jackhammer.getPolicyVersion());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Record from many threads at once, every record should be committed exactly once
+     */
+    @Test
+    void concurrentRecords() throws Exception {
+        Path file = Files.createTempFile("checkouts", ".journal");
+        try {
+            RentalQuote quote = new RentalQuote(3, "7/2/20", new Tool("LADW"), 10);
+            List<Thread> writers = new ArrayList<>();
+            List<Throwable> errors = new ArrayList<>();
+            try (CheckoutJournal journal = new CheckoutJournal(file, 1)) {
+                for (int i = 0; i < 16; i++) {
+                    Thread writer = new Thread(() -> {
+                        try {
+                            for (int j = 0; j < 50; j++) {
+                                journal.record(quote);
+                            }
+                        } catch (IOException e) {
+                            synchronized (errors) {
+                                errors.add(e);
+                            }
+                        }
+                    });
+                    writers.add(writer);
+                    writer.start();
+                }
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+            }
+            assertTrue(errors.isEmpty());
+            assertEquals(800, CheckoutJournal.replay(file, entry -> assertEquals(358, entry.getFinalChargeCents())));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * A record cut short or corrupted should end the replay, and reopening should truncate it
+     */
+    @Test
+    void tornRecordIsTruncated() throws Exception {
+        Path file = Files.createTempFile("checkouts", ".journal");
+        try {
+            try (CheckoutJournal journal = new CheckoutJournal(file, 0)) {
+                journal.record(new RentalQuote(3, "7/2/20", new Tool("LADW"), 10));
+                journal.record(new RentalQuote(5, "7/2/15", new Tool("CHNS"), 25));
+            }
+            //flip a byte in the last record's policy version
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), size - Integer.BYTES - 1);
+            }
+            assertEquals(1, CheckoutJournal.replay(file, entry -> { }));
+
+            try (CheckoutJournal journal = new CheckoutJournal(file, 0)) {
+                journal.record(new RentalQuote(6, "9/3/15", new Tool("JAKD"), 0));
+            }
+            List<CheckoutJournal.Entry> entries = new ArrayList<>();
+            assertEquals(2, CheckoutJournal.replay(file, entries::add));
+            assertEquals("LADW", entries.get(0).getToolCode());
+            assertEquals("JAKD", entries.get(1).getToolCode());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Corruption in front of complete records is not a torn end, so the journal should refuse to open instead of
+     * truncating the acknowledged records after it
+     */
+    @Test
+    void corruptMiddleIsNotTruncated() throws Exception {
+        Path file = Files.createTempFile("checkouts", ".journal");
+        try {
+            try (CheckoutJournal journal = new CheckoutJournal(file, 0)) {
+                journal.record(new RentalQuote(3, "7/2/20", new Tool("LADW"), 10));
+                journal.record(new RentalQuote(5, "7/2/15", new Tool("CHNS"), 25));
+                journal.record(new RentalQuote(6, "9/3/15", new Tool("JAKD"), 0));
+            }
+            //flip a byte in the first record's payload, after the magic number and its length
+            long size = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 2 * Integer.BYTES + 1);
+            }
+
+            try {
+                new CheckoutJournal(file, 0).close();
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Checkout journal is corrupt at byte 4"), e.getMessage());
+            }
+            try {
+                CheckoutJournal.replay(file, entry -> { });
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Checkout journal is corrupt at byte 4"), e.getMessage());
+            }
+            assertEquals(size, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void closedJournal() throws Exception {
+        Path file = Files.createTempFile("checkouts", ".journal");
+        try {
+            CheckoutJournal journal = new CheckoutJournal(file, 0);
+            journal.close();
+            try {
+                journal.record(new RentalQuote(3, "7/2/20", new Tool("LADW"), 10));
+                fail();
+            } catch (IOException e) {
+                assertEquals("Checkout journal is closed.", e.getMessage());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
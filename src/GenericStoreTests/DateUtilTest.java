@@ -1,6 +1,7 @@
 package GenericStoreTests;
 
 import GenericStore.DateUtil;
+import GenericStore.EpochDayUtil;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -122,4 +123,54 @@ final class DateUtilTest {
         int holidayTestC3 = DateUtil.numberOfWeekendDays(date3, rentalDays3);
         assertEquals(28, holidayTestC3);
     }
+
+    /**
+     * Rentals starting on a Saturday for whole weeks end on a Saturday, which is a weekend day as well
+     */
+    @Test
+    void saturdayCheckoutWeekendDays() {
+        //7/6/24 is a Saturday
+        assertEquals(2, DateUtil.numberOfWeekendDays("7/6/24", 7));
+        assertEquals(4, DateUtil.numberOfWeekendDays("7/6/24", 14));
+        assertEquals(3, DateUtil.numberOfWeekendDays("7/6/24", 8));
+        assertEquals(1, DateUtil.numberOfWeekendDays("7/6/24", 1));
+    }
+
+    /**
+     * July 4th falling on a weekend is observed on the closest weekday, which has to be inside the rental period
+     */
+    @Test
+    void observedJulyFourth() {
+        //7/4/15 is a Saturday, observed on Friday 7/3/15
+        assertEquals(1, DateUtil.containsHolidays("7/2/15", 1));
+        assertEquals(0, DateUtil.containsHolidays("7/3/15", 3));
+        //7/4/21 is a Sunday, observed on Monday 7/5/21
+        assertEquals(0, DateUtil.containsHolidays("7/2/21", 2));
+        assertEquals(1, DateUtil.containsHolidays("7/2/21", 3));
+    }
+
+    /**
+     * Rentals spanning multiple years contain the holidays of every year
+     */
+    @Test
+    void multiYearHolidays() {
+        //7/4/20 and 7/4/21 are both observed on other days, Labor Days are 9/7/20 and 9/6/21
+        assertEquals(4, DateUtil.containsHolidays("6/1/20", 500));
+        assertEquals(2, DateUtil.containsHolidays("8/1/20", 400));
+        assertEquals(3, DateUtil.containsHolidays("8/1/20", 410));
+        //12/30/20 to 1/5/22
+        assertEquals(2, DateUtil.containsHolidays("12/30/20", 371));
+    }
+
+    /**
+     * Labor Day is the first Monday of September of each year, not the day of the month of the first year
+     */
+    @Test
+    void laborDayPerYear() {
+        //Labor Day is 9/7/20 and 9/6/21, 8/1/20 plus 400 days is Sunday 9/5/21
+        assertEquals(2, DateUtil.containsHolidays("8/1/20", 400));
+        assertEquals(3, DateUtil.containsHolidays("8/1/20", 401));
+        assertEquals(2, EpochDayUtil.containsHolidays(EpochDayUtil.parse("8/1/20"), 400));
+        assertEquals(3, EpochDayUtil.containsHolidays(EpochDayUtil.parse("8/1/20"), 401));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package GenericStoreTests;
+
+import GenericStore.BookingDemand;
+import GenericStore.DemandPricing;
+import GenericStore.EpochDayUtil;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+import GenericStore.ToolInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class DemandPricingTest {
+
+    /**
+     * Compare random bookings and windows against a plain count per day
+     */
+    @Test
+    void bookedUnitDaysMatchDailyCounts() throws Exception {
+        int firstDay = EpochDayUtil.epochDay(2020, 1, 1);
+        int dayCount = 3 * 365;
+        BookingDemand demand = new BookingDemand(firstDay, firstDay + dayCount);
+        Tool[] tools = {new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR")};
+        long[][] daily = new long[tools.length][dayCount];
+        SplittableRandom random = new SplittableRandom(39);
+
+        for (int i = 0; i < 5_000; i++) {
+            int type = random.nextInt(tools.length);
+            //some bookings start before or end after the range
+            int checkoutDay = firstDay - 30 + random.nextInt(dayCount + 30);
+            int rentalDays = 1 + random.nextInt(90);
+            boolean cancel = i % 10 == 9;
+            if (cancel) {
+                demand.cancel(tools[type], checkoutDay, rentalDays);
+            } else {
+                demand.book(tools[type], checkoutDay, rentalDays);
+            }
+            for (int day = checkoutDay; day < checkoutDay + rentalDays; day++) {
+                if (day >= firstDay && day < firstDay + dayCount) {
+                    daily[type][day - firstDay] += cancel ? -1 : 1;
+                }
+            }
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            int type = random.nextInt(tools.length);
+            int from = firstDay - 10 + random.nextInt(dayCount + 20);
+            int to = from + random.nextInt(120);
+            long expected = 0;
+            for (int day = Math.max(from, firstDay); day < Math.min(to, firstDay + dayCount); day++) {
+                expected += daily[type][day - firstDay];
+            }
+            assertEquals(expected, demand.bookedUnitDays(tools[type].getTypeIndex(), from, to));
+        }
+    }
+
+    /**
+     * Chainsaws around July 4th: 4 units, 3 of them reserved 7/1/20 through 7/5/20
+     */
+    @Test
+    void surgeMultiplier() throws Exception {
+        ToolInventory inventory = new ToolInventory(new BookingDemand());
+        inventory.addUnits("CHNS", 4);
+        inventory.addUnits("LADW", 4);
+        Tool chainsaw = new Tool("CHNS");
+        Tool ladder = new Tool("LADW");
+        int julyFirst = EpochDayUtil.epochDay(2020, 7, 1);
+        for (int unit = 0; unit < 3; unit++) {
+            assertEquals(unit, inventory.reserve("CHNS", "7/1/20", 5));
+        }
+        DemandPricing pricing = new DemandPricing(inventory);
+
+        //75% booked
+        assertEquals(12_500, pricing.rateMultiplier(chainsaw, julyFirst, 5));
+        //15 of 40 unit days
+        assertEquals(10_000, pricing.rateMultiplier(chainsaw, julyFirst, 10));
+        //9 of 20 unit days
+        assertEquals(10_000, pricing.rateMultiplier(chainsaw, julyFirst - 2, 5));
+        //9 of 12 unit days
+        assertEquals(12_500, pricing.rateMultiplier(chainsaw, julyFirst + 2, 3));
+        assertEquals(10_000, pricing.rateMultiplier(ladder, julyFirst, 5));
+
+        assertEquals(3, inventory.reserve("CHNS", "7/1/20", 5));
+        assertEquals(15_000, pricing.rateMultiplier(chainsaw, julyFirst, 5));
+
+        RentalQuote quote = pricing.quote(5, "7/1/20", chainsaw, 0);
+        RentalQuote regular = new RentalQuote(5, "7/1/20", chainsaw, 0);
+        assertEquals(224, quote.getDailyRentalChargeCents());
+        assertEquals(regular.getChargeableDays(), quote.getChargeableDays());
+        assertEquals(224 * regular.getChargeableDays(), quote.getPreDiscountChargeCents());
+
+        //released bookings and new units lower the utilization
+        assertTrue(inventory.release("CHNS", 3, "7/1/20"));
+        assertEquals(12_500, pricing.rateMultiplier(chainsaw, julyFirst, 5));
+        inventory.addUnits("CHNS", 2);
+        //3 of 6 units
+        assertEquals(11_000, pricing.rateMultiplier(chainsaw, julyFirst, 5));
+    }
+
+    @Test
+    void invalidSchedules() throws Exception {
+        ToolInventory inventory = new ToolInventory(new BookingDemand());
+        assertInvalid("The inventory must record its bookings in a BookingDemand.", new ToolInventory(),
+                new int[]{50}, new int[]{11_000});
+        assertInvalid("Every utilization threshold needs a multiplier.", inventory, new int[]{50, 75},
+                new int[]{11_000});
+        assertInvalid("Utilization thresholds must not be negative.", inventory, new int[]{-10, 50},
+                new int[]{9_000, 11_000});
+        assertInvalid("Utilization thresholds must be in ascending order.", inventory, new int[]{75, 50},
+                new int[]{12_500, 11_000});
+        assertInvalid("Utilization thresholds must be in ascending order.", inventory, new int[]{50, 50},
+                new int[]{11_000, 12_500});
+        assertInvalid("Rate multipliers must be greater than 0.", inventory, new int[]{0, 50},
+                new int[]{0, 11_000});
+
+        //a multiplier below 1x from 0% utilization discounts idle tools
+        inventory.addUnits("LADW", 1);
+        DemandPricing pricing = new DemandPricing(inventory, new int[]{0, 50}, new int[]{9_000, 11_000});
+        assertEquals(9_000, pricing.rateMultiplier(new Tool("LADW"), EpochDayUtil.epochDay(2020, 7, 1), 5));
+    }
+
+    @Test
+    void scaledCharges() {
+        assertEquals(149, DemandPricing.scaledChargeCents(149, 10_000));
+        assertEquals(219, DemandPricing.scaledChargeCents(199, 11_000));
+        assertEquals(186, DemandPricing.scaledChargeCents(149, 12_500));
+        assertEquals(449, DemandPricing.scaledChargeCents(299, 15_000));
+    }
+
+    @Test
+    void invalidQuote() throws Exception {
+        DemandPricing pricing = new DemandPricing(new ToolInventory(new BookingDemand()));
+        try {
+            pricing.quote(0, "7/1/20", new Tool("CHNS"), 0);
+            fail();
+        } catch (Exception e) {
+            assertEquals("Rental days must be greater than 0.", e.getMessage());
+        }
+    }
+
+    private static void assertInvalid(String message, ToolInventory inventory, int[] utilizationPercents,
+                                      int[] multipliers) {
+        try {
+            new DemandPricing(inventory, utilizationPercents, multipliers);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package GenericStoreTests;
+
+import GenericStore.BatchDayCounter;
+import GenericStore.DateUtil;
+import GenericStore.EpochDayUtil;
+import GenericStore.PricingPolicy;
+import GenericStore.RentalAgreement;
+import GenericStore.RentalPricer;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Calendar based DateUtil as the reference for the epoch day counts, and RentalAgreement's double and
+ * BigDecimal math as the reference for the cents fast paths. RentalAgreement counts its days through PricingPolicy,
+ * so its charge days are checked against counts from DateUtil and the PricingPolicy.DEFAULT flags instead.
+ * Every checkout date from 2000 through 2099 is covered with every rental length from 1 to 1000 by walking a
+ * GregorianCalendar one day at a time from each checkout date, so each (date, length) pair costs one Calendar step.
+ * DateUtil itself builds several Calendars per call, so it is run on a sample of the same inputs (lengths 1-14 plus
+ * one random length up to 1000 per date), which ties the walk to it. Running DateUtil on every length as well takes
+ * minutes rather than seconds, it is done with -Ddifferential.exhaustive=true.
+ * The random inputs can be changed with -Ddifferential.seed=n
+ * DateUtil logs every Calendar it builds through the global logger, which is muted only while a test calling it runs.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+final class DifferentialPricingTest {
+    private static final boolean EXHAUSTIVE = Boolean.getBoolean("differential.exhaustive");
+    private static final long SEED = Long.getLong("differential.seed", 421L);
+
+    private static final int FIRST_DAY = (int) LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final int DAY_COUNT = (int) LocalDate.of(2100, 1, 1).toEpochDay() - FIRST_DAY;
+    private static final int MAX_RENTAL_DAYS = 1000;
+    private static final int FIXED_RENTAL_DAYS = 14;
+    private static final int AGREEMENT_COUNT = 50000;
+
+    private Tool[] tools;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        tools = new Tool[]{new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR"), new Tool("JAKD")};
+    }
+
+    /**
+     * Compare weekend and holiday counts and the return day of every rental length from 1 to 1000 for every
+     * checkout date against a Calendar walk
+     */
+    @Test
+    void everyLengthMatchesCalendarWalk() {
+        OptionalInt diverging = IntStream.range(0, DAY_COUNT)
+                .parallel()
+                .filter(day -> calendarWalkDiffers(FIRST_DAY + day) > 0)
+                .findFirst();
+
+        if (diverging.isPresent()) {
+            int checkoutDay = FIRST_DAY + diverging.getAsInt();
+            int rentalDays = calendarWalkDiffers(checkoutDay);
+            fail("First diverging input: checkout " + dateString(checkoutDay) + ", rental days " + rentalDays
+                    + "\nholidays: fast " + EpochDayUtil.containsHolidays(checkoutDay, rentalDays)
+                    + "\nweekend days: fast " + EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays)
+                    + "\nreturn date: fast " + EpochDayUtil.format(checkoutDay + rentalDays));
+        }
+    }
+
+    /**
+     * Compare weekend and holiday counts and the return date for every checkout date against DateUtil itself
+     */
+    @Test
+    void calendarCountsMatchReference() {
+        int lengthsPerDay = EXHAUSTIVE ? MAX_RENTAL_DAYS : FIXED_RENTAL_DAYS + 1;
+        Level originalLevel = muteDateUtil();
+        OptionalInt diverging;
+        try {
+            diverging = IntStream.range(0, DAY_COUNT * lengthsPerDay)
+                    .parallel()
+                    .filter(input -> calendarCountsDiffer(FIRST_DAY + input / lengthsPerDay,
+                            rentalDays(input, lengthsPerDay)))
+                    .findFirst();
+        } finally {
+            Logger.getGlobal().setLevel(originalLevel);
+        }
+
+        if (diverging.isPresent()) {
+            int input = diverging.getAsInt();
+            int checkoutDay = FIRST_DAY + input / lengthsPerDay;
+            int rentalDays = rentalDays(input, lengthsPerDay);
+            String date = dateString(checkoutDay);
+            fail("First diverging input: checkout " + date + ", rental days " + rentalDays
+                    + "\nholidays: reference " + DateUtil.containsHolidays(date, rentalDays)
+                    + ", fast " + EpochDayUtil.containsHolidays(checkoutDay, rentalDays)
+                    + "\nweekend days: reference " + DateUtil.numberOfWeekendDays(date, rentalDays)
+                    + ", fast " + EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays)
+                    + "\nreturn date: reference " + DateUtil.getDateString(date, rentalDays)
+                    + ", fast " + EpochDayUtil.format(checkoutDay + rentalDays)
+                    + "\nepoch day: expected " + checkoutDay + ", parsed " + EpochDayUtil.parse(date));
+        }
+    }
+
+    /**
+     * Compare complete agreements and quotes for random dates, tools, rental lengths and discounts
+     */
+    @Test
+    void agreementsMatchReference() {
+        Level originalLevel = muteDateUtil();
+        try {
+            OptionalInt diverging = IntStream.range(0, AGREEMENT_COUNT)
+                    .parallel()
+                    .filter(input -> !describeAgreementDifference(input).isEmpty())
+                    .findFirst();
+
+            if (diverging.isPresent()) {
+                fail("First diverging agreement: " + describeAgreementDifference(diverging.getAsInt()));
+            }
+        } finally {
+            Logger.getGlobal().setLevel(originalLevel);
+        }
+    }
+
+    /**
+     * Check the rounding of every discount percentage on ladder rentals of 1 to 500 days, which covers plenty of
+     * half cent ties
+     */
+    @Test
+    void discountRoundingMatchesReference() throws Exception {
+        Tool ladder = tools[0];
+        for (int days = 1; days <= 500; days++) {
+            for (int discount = 0; discount <= 100; discount++) {
+                RentalAgreement reference = new RentalAgreement(days, "1/3/00", ladder, discount);
+                long preDiscount = RentalPricer.preDiscountCents(reference.getChargeableDays(),
+                        PricingPolicy.DEFAULT.dailyChargeCents(ladder));
+                long discountCents = RentalPricer.discountCents(preDiscount, discount);
+
+                assertEquals(cents(reference.getPreDiscountCharge()), preDiscount);
+                assertEquals(cents(reference.getDiscountAmount()), discountCents,
+                        "pre-discount " + preDiscount + " cents, discount " + discount + "%");
+                assertEquals(cents(reference.getFinalCharge()), RentalPricer.finalChargeCents(preDiscount, discountCents));
+            }
+        }
+    }
+
+    /**
+     * Compare the batch counts against the single rental fast path for every checkout date, with every rental length
+     * up to 120 days (up to 1000 days when exhaustive), one checkout date per batch
+     */
+    @Test
+    void batchCountsMatchFastPath() {
+        int lengths = EXHAUSTIVE ? MAX_RENTAL_DAYS : 120;
+        OptionalInt diverging = IntStream.range(0, DAY_COUNT)
+                .parallel()
+                .filter(day -> batchCountsDiffer(FIRST_DAY + day, lengths))
+                .findFirst();
+
+        if (diverging.isPresent()) {
+            fail("First diverging batch: checkout " + dateString(FIRST_DAY + diverging.getAsInt()));
+        }
+    }
+
+    private boolean batchCountsDiffer(int checkoutDay, int lengths) {
+        int size = lengths * tools.length;
+        int[] checkoutDays = new int[size];
+        int[] rentalDays = new int[size];
+        int[] toolFlags = new int[size];
+        for (int i = 0; i < size; i++) {
+            checkoutDays[i] = checkoutDay;
+            rentalDays[i] = i / tools.length + 1;
+            toolFlags[i] = BatchDayCounter.toolFlags(PricingPolicy.DEFAULT, tools[i % tools.length]);
+        }
+        int[] weekendDays = new int[size];
+        int[] holidays = new int[size];
+        int[] chargeableDays = new int[size];
+        BatchDayCounter.count(PricingPolicy.DEFAULT, checkoutDays, rentalDays, toolFlags, weekendDays, holidays,
+                chargeableDays, size);
+
+        for (int i = 0; i < size; i++) {
+            if (weekendDays[i] != EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays[i])
+                    || holidays[i] != EpochDayUtil.containsHolidays(checkoutDay, rentalDays[i])
+                    || chargeableDays[i] != PricingPolicy.DEFAULT.chargeableDays(checkoutDay, rentalDays[i],
+                    tools[i % tools.length])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int rentalDays(int input, int lengthsPerDay) {
+        int index = input % lengthsPerDay;
+        if (EXHAUSTIVE || index < FIXED_RENTAL_DAYS) {
+            return index + 1;
+        }
+        return new SplittableRandom(SEED + input).nextInt(FIXED_RENTAL_DAYS + 1, MAX_RENTAL_DAYS + 1);
+    }
+
+    /**
+     * DateUtil logs every Calendar it builds, which would flood the output during the sweep
+     * @return - Level to restore once the test is done
+     */
+    private static Level muteDateUtil() {
+        Level originalLevel = Logger.getGlobal().getLevel();
+        Logger.getGlobal().setLevel(Level.OFF);
+        return originalLevel;
+    }
+
+    /**
+     * Walks a Calendar from the checkout date over the longest rental, counting weekend days and the observed July 4th
+     * and Labor Day of every year as it goes, and compares the counts after each day with the fast path
+     * @return - int representing the first rental length that differs, 0 if none does
+     */
+    private static int calendarWalkDiffers(int checkoutDay) {
+        LocalDate checkout = LocalDate.ofEpochDay(checkoutDay);
+        Calendar calendar = new GregorianCalendar(checkout.getYear(), checkout.getMonthValue() - 1,
+                checkout.getDayOfMonth());
+        int weekendDays = 0;
+        int holidays = 0;
+        for (int rentalDays = 1; rentalDays <= MAX_RENTAL_DAYS; rentalDays++) {
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            int dayOfWeek = calendar.get(Calendar.DAY_OF_WEEK);
+            int month = calendar.get(Calendar.MONTH);
+            int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
+            int year = calendar.get(Calendar.YEAR);
+            if (dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY) {
+                weekendDays++;
+            } else if (isObservedJulyFourth(month, dayOfMonth, dayOfWeek)
+                    || (month == Calendar.SEPTEMBER && dayOfWeek == Calendar.MONDAY && dayOfMonth <= 7)) {
+                holidays++;
+            }
+
+            //the return date strings are compared with DateUtil in calendarCountsMatchReference
+            if (EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays) != weekendDays
+                    || EpochDayUtil.containsHolidays(checkoutDay, rentalDays) != holidays
+                    || EpochDayUtil.epochDay(year, month + 1, dayOfMonth) != checkoutDay + rentalDays) {
+                return rentalDays;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * July 4th, or the Friday before / Monday after when it falls on a weekend
+     */
+    private static boolean isObservedJulyFourth(int month, int dayOfMonth, int dayOfWeek) {
+        return month == Calendar.JULY && (dayOfMonth == 4
+                || (dayOfMonth == 3 && dayOfWeek == Calendar.FRIDAY)
+                || (dayOfMonth == 5 && dayOfWeek == Calendar.MONDAY));
+    }
+
+    private static boolean calendarCountsDiffer(int checkoutDay, int rentalDays) {
+        String date = dateString(checkoutDay);
+
+        return EpochDayUtil.parse(date) != checkoutDay
+                || DateUtil.containsHolidays(date, rentalDays) != EpochDayUtil.containsHolidays(checkoutDay, rentalDays)
+                || DateUtil.numberOfWeekendDays(date, rentalDays) != EpochDayUtil.numberOfWeekendDays(checkoutDay, rentalDays)
+                || !DateUtil.getDateString(date, rentalDays).equals(EpochDayUtil.format(checkoutDay + rentalDays));
+    }
+
+    /**
+     * Builds the reference agreement and fast path charges for a random input
+     * @return - String describing the input and the differing values, empty if everything matches
+     */
+    private String describeAgreementDifference(int input) {
+        SplittableRandom random = new SplittableRandom(SEED ^ ((long) input << 20));
+        int checkoutDay = FIRST_DAY + random.nextInt(DAY_COUNT);
+        int rentalDays = 1 + random.nextInt(MAX_RENTAL_DAYS);
+        Tool tool = tools[random.nextInt(tools.length)];
+        int discount = random.nextInt(101);
+        String date = dateString(checkoutDay);
+
+        RentalAgreement reference;
+        RentalQuote quote;
+        try {
+            reference = new RentalAgreement(rentalDays, date, tool, discount);
+            quote = new RentalQuote(rentalDays, date, tool, discount);
+        } catch (Exception e) {
+            return "threw " + e.getMessage();
+        }
+        //independent of PricingPolicy, which both the agreement and the fast path count with
+        int referenceDays = rentalDays
+                - (PricingPolicy.DEFAULT.weekendCharge(tool) ? 0 : DateUtil.numberOfWeekendDays(date, rentalDays))
+                - (PricingPolicy.DEFAULT.holidayCharge(tool) ? 0 : DateUtil.containsHolidays(date, rentalDays));
+        int chargeableDays = PricingPolicy.DEFAULT.chargeableDays(checkoutDay, rentalDays, tool);
+        long dailyCharge = PricingPolicy.DEFAULT.dailyChargeCents(tool);
+        long preDiscount = RentalPricer.preDiscountCents(chargeableDays, dailyCharge);
+        long discountAmount = RentalPricer.discountCents(preDiscount, discount);
+        long finalCharge = RentalPricer.finalChargeCents(preDiscount, discountAmount);
+
+        StringBuilder differences = new StringBuilder();
+        compare(differences, "agreement charge days", referenceDays, reference.getChargeableDays());
+        compare(differences, "charge days", referenceDays, chargeableDays);
+        compare(differences, "daily rental charge", cents(reference.getDailyRentalCharge()), dailyCharge);
+        compare(differences, "pre-discount charge", cents(reference.getPreDiscountCharge()), preDiscount);
+        compare(differences, "discount amount", cents(reference.getDiscountAmount()), discountAmount);
+        compare(differences, "final charge", cents(reference.getFinalCharge()), finalCharge);
+        compare(differences, "quote final charge", cents(reference.getFinalCharge()), quote.getFinalChargeCents());
+        if (!reference.getRentalAgreementOutput().equals(localized(quote.getRentalQuoteOutput()))) {
+            differences.append("\nreference output:\n").append(reference.getRentalAgreementOutput())
+                    .append("\nquote output:\n").append(quote.getRentalQuoteOutput());
+        }
+        if (differences.length() == 0) {
+            return "";
+        }
+        return tool.getToolCode() + ", checkout " + date + ", rental days " + rentalDays + ", discount "
+                + discount + "%" + differences;
+    }
+
+    private static void compare(StringBuilder differences, String field, long reference, long fast) {
+        if (reference != fast) {
+            differences.append("\n").append(field).append(": reference ").append(reference).append(", fast ").append(fast);
+        }
+    }
+
+    /**
+     * RentalQuote always prints money like DecimalFormat does in a US locale, while RentalAgreement uses the default
+     * locale. Swaps the separators of the quote output (only money has any) for the default locale ones instead of
+     * changing the default locale under the other tests
+     */
+    private static String localized(String usOutput) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+        StringBuilder builder = new StringBuilder(usOutput.length());
+        for (int i = 0; i < usOutput.length(); i++) {
+            char c = usOutput.charAt(i);
+            if (c == ',') {
+                c = symbols.getGroupingSeparator();
+            } else if (c == '.') {
+                c = symbols.getDecimalSeparator();
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static String dateString(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+
+        return date.getMonthValue() + "/" + date.getDayOfMonth() + "/" + (date.getYear() % 100);
+    }
+}
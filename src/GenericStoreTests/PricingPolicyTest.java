@@ -0,0 +1,217 @@
+package GenericStoreTests;
+
+import GenericStore.BatchDayCounter;
+import GenericStore.EpochDayUtil;
+import GenericStore.PricingPolicy;
+import GenericStore.PricingPolicyWatcher;
+import GenericStore.RentalAgreement;
+import GenericStore.RentalItinerary;
+import GenericStore.RentalOrder;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class PricingPolicyTest {
+
+    /**
+     * Version 2 raises the ladder rate, moves ladders from weekend to holiday charges, drops July 4th and adds
+     * Monday 7/6/20 as a holiday
+     */
+    private static final String VERSION_2 = "version=2\n"
+            + "Ladder.dailyCharge=2.49\nLadder.weekendCharge=false\nLadder.holidayCharge=true\n"
+            + "Chainsaw.dailyCharge=1.49\nChainsaw.weekendCharge=false\nChainsaw.holidayCharge=true\n"
+            + "Jackhammer.dailyCharge=2.99\nJackhammer.weekendCharge=false\nJackhammer.holidayCharge=false\n"
+            + "holidays=labor-day, 7/6/20\n";
+
+    @Test
+    void defaultPolicy() throws Exception {
+        RentalAgreement agreement = new RentalAgreement(4, "7/2/20", new Tool("LADW"), 0);
+
+        assertEquals(0, agreement.getPolicyVersion());
+        assertEquals(1.99, agreement.getDailyRentalCharge());
+        assertEquals(3, agreement.getChargeableDays());
+    }
+
+    @Test
+    void publishedPolicyIsUsed() throws Exception {
+        Path file = writePolicy(VERSION_2);
+        try {
+            PricingPolicy.publish(PricingPolicy.load(file));
+            Tool ladder = new Tool("LADW");
+            Tool jackhammer = new Tool("JAKR");
+
+            RentalAgreement agreement = new RentalAgreement(4, "7/2/20", ladder, 0);
+            assertEquals(2, agreement.getPolicyVersion());
+            assertEquals(2.49, agreement.getDailyRentalCharge());
+            assertEquals(2, agreement.getChargeableDays());
+            assertEquals(4.98, agreement.getFinalCharge());
+
+            RentalQuote quote = new RentalQuote(4, "7/2/20", jackhammer, 0);
+            assertEquals(2, quote.getPolicyVersion());
+            assertEquals(1, quote.getChargeableDays());
+
+            RentalOrder order = new RentalOrder(4, "7/2/20", Arrays.asList(ladder, jackhammer), 0);
+            assertEquals(2, order.getPolicyVersion());
+            assertEquals(1, order.getHolidays());
+            assertEquals(498 + 299, order.getPreDiscountChargeCents());
+        } finally {
+            PricingPolicy.publish(PricingPolicy.DEFAULT);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * The agreement, the itinerary and the batch counter should all price a rental from the same snapshot
+     */
+    @Test
+    void everyPathUsesTheSnapshot() throws Exception {
+        Path file = writePolicy(VERSION_2);
+        try {
+            PricingPolicy policy = PricingPolicy.load(file);
+            PricingPolicy.publish(policy);
+            Tool ladder = new Tool("LADW");
+            int checkoutDay = EpochDayUtil.parse("7/2/20");
+
+            RentalAgreement agreement = new RentalAgreement(4, "7/2/20", ladder, 0);
+            assertEquals(2, agreement.getChargeableDays());
+
+            List<String> lines = RentalItinerary.invoiceLines(policy, checkoutDay, 4, ladder)
+                    .collect(Collectors.toList());
+            assertEquals(Arrays.asList("Fri 7/3/20 Weekday: $2.49", "Sat 7/4/20 Weekend: no charge",
+                    "Sun 7/5/20 Weekend: no charge", "Mon 7/6/20 Holiday: $2.49"), lines);
+
+            int[] weekendDays = new int[1];
+            int[] holidays = new int[1];
+            int[] chargeableDays = new int[1];
+            BatchDayCounter.count(policy, new int[]{checkoutDay}, new int[]{4},
+                    new int[]{BatchDayCounter.toolFlags(policy, ladder)}, weekendDays, holidays, chargeableDays, 1);
+            assertEquals(2, weekendDays[0]);
+            assertEquals(1, holidays[0]);
+            assertEquals(agreement.getChargeableDays(), chargeableDays[0]);
+
+            //the default policy still counts July 4th, so the table built for version 2 must not be reused
+            BatchDayCounter.count(PricingPolicy.DEFAULT, new int[]{checkoutDay}, new int[]{4},
+                    new int[]{BatchDayCounter.toolFlags(PricingPolicy.DEFAULT, ladder)}, weekendDays, holidays,
+                    chargeableDays, 1);
+            assertEquals(1, holidays[0]);
+            assertEquals(3, chargeableDays[0]);
+        } finally {
+            PricingPolicy.publish(PricingPolicy.DEFAULT);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * The batch counter keeps tables for a few holiday sets, so switching between policies should keep counting each
+     * policy's own holidays. Version 3 only changes a rate, so it shares the holidays of version 2
+     */
+    @Test
+    void batchCountsFollowAlternatingPolicies() throws Exception {
+        Path file2 = writePolicy(VERSION_2);
+        Path file3 = writePolicy(VERSION_2.replace("version=2", "version=3").replace("2.49", "2.59"));
+        try {
+            PricingPolicy[] policies = {PricingPolicy.load(file2), PricingPolicy.DEFAULT, PricingPolicy.load(file3)};
+            int firstDay = EpochDayUtil.parse("6/1/20");
+            int[] checkoutDays = new int[120];
+            int[] rentalDays = new int[checkoutDays.length];
+            int[] toolFlags = new int[checkoutDays.length];
+            for (int i = 0; i < checkoutDays.length; i++) {
+                checkoutDays[i] = firstDay + i;
+                rentalDays[i] = 1 + i % 10;
+            }
+            int[] weekendDays = new int[checkoutDays.length];
+            int[] holidays = new int[checkoutDays.length];
+            int[] chargeableDays = new int[checkoutDays.length];
+
+            for (int round = 0; round < 3; round++) {
+                for (PricingPolicy policy : policies) {
+                    BatchDayCounter.count(policy, checkoutDays, rentalDays, toolFlags, weekendDays, holidays,
+                            chargeableDays, checkoutDays.length);
+                    for (int i = 0; i < checkoutDays.length; i++) {
+                        assertEquals(policy.holidays(checkoutDays[i], rentalDays[i]), holidays[i],
+                                "version " + policy.getVersion() + " checkout " + EpochDayUtil.format(checkoutDays[i]));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file2);
+            Files.deleteIfExists(file3);
+        }
+    }
+
+    @Test
+    void weekendHolidaysAreNotCountedTwice() throws Exception {
+        Path file = writePolicy(VERSION_2.replace("7/6/20", "7/5/20, 7/6/20, 7/6/20"));
+        try {
+            //7/5/20 is a Sunday
+            assertEquals(1, PricingPolicy.load(file).holidays(EpochDayUtil.epochDay(2020, 7, 2), 4));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void invalidPolicies() throws Exception {
+        String[][] cases = {
+                {VERSION_2.replace("Ladder.dailyCharge=2.49\n", ""), "Missing Ladder.dailyCharge in pricing policy."},
+                {VERSION_2.replace("2.49", "2.495"),
+                        "Daily charge of Ladder must be a positive amount of dollars and cents."},
+                {VERSION_2.replace("2.49", "0.00"),
+                        "Daily charge of Ladder must be a positive amount of dollars and cents."},
+                {VERSION_2.replace("Ladder.weekendCharge=false", "Ladder.weekendCharge=no"),
+                        "Ladder.weekendCharge must be true or false."},
+                {VERSION_2.replace("7/6/20", "7/32/20"), "Invalid holiday in pricing policy: 7/32/20"}
+        };
+        for (String[] invalid : cases) {
+            Path file = writePolicy(invalid[0]);
+            try {
+                PricingPolicy.load(file);
+                fail();
+            } catch (Exception e) {
+                assertEquals(invalid[1], e.getMessage());
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void watcherReloadsChangedFile() throws Exception {
+        Path file = writePolicy(VERSION_2);
+        try (PricingPolicyWatcher watcher = new PricingPolicyWatcher(file)) {
+            assertEquals(2, PricingPolicy.current().getVersion());
+
+            //a broken file keeps the last good policy
+            Files.write(file, "version=3\n".getBytes(StandardCharsets.UTF_8));
+            assertFalse(watcher.reload());
+            assertNotNull(watcher.getLastError());
+            assertEquals(2, PricingPolicy.current().getVersion());
+
+            Files.write(file, VERSION_2.replace("version=2", "version=3").getBytes(StandardCharsets.UTF_8));
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (PricingPolicy.current().getVersion() != 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(3, PricingPolicy.current().getVersion());
+            assertNull(watcher.getLastError());
+        } finally {
+            PricingPolicy.publish(PricingPolicy.DEFAULT);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Path writePolicy(String contents) throws Exception {
+        Path file = Files.createTempFile("pricing", ".properties");
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -42,6 +42,19 @@ final class RentalAgreementTest {
         assertEquals(3, agr5.getChargeableDays());
     }
 
+    /**
+     * Charges affected by the weekend and holiday counting rules
+     */
+    @Test
+    void weekendAndHolidayRules() throws Exception {
+        //Saturday 7/6/24 for a week ends on Saturday 7/13/24, both weekends are free for a chainsaw
+        assertEquals(5, new RentalAgreement(7, "7/6/24", chainsaw, 0).getChargeableDays());
+        //7/4/15 is observed on the checkout day 7/3/15, so only Monday 7/6/15 is charged
+        assertEquals(1, new RentalAgreement(3, "7/3/15", jackhammerR, 0).getChargeableDays());
+        //Labor Day 9/6/21 is the return day, 401 days with 115 weekend days and 3 holidays
+        assertEquals(283, new RentalAgreement(401, "8/1/20", jackhammerR, 0).getChargeableDays());
+    }
+
     /**
      * Check if various values are as expected (doc scenario 2)
      */
@@ -202,5 +215,14 @@ final class RentalAgreementTest {
         }
     }
 
+    @Test
+    void sharedReturnDate() throws Exception{
+        RentalAgreement first = new RentalAgreement(5, "9/3/15", jackhammerR, 0);
+        RentalAgreement second = new RentalAgreement(3, "9/5/15", new Tool("LADW"), 10);
+
+        assertEquals("9/8/15", first.getReturnDate());
+        assertSame(first.getReturnDate(), second.getReturnDate());
+    }
+
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package GenericStoreTests;
+
+import GenericStore.RentalAgreement;
+import GenericStore.RentalInputValidator;
+import GenericStore.RentalOrder;
+import GenericStore.RentalQuote;
+import GenericStore.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RentalInputValidatorTest {
+
+    @Test
+    void errorCodes() {
+        RentalInputValidator validator = new RentalInputValidator();
+
+        assertEquals(RentalInputValidator.VALID, validator.validate("JAKR", "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.INVALID_RENTAL_DAYS, validator.validate("JAKR", "9/3/15", 0, 0));
+        assertEquals(RentalInputValidator.INVALID_DISCOUNT, validator.validate("JAKR", "9/3/15", 5, 101));
+        assertEquals(RentalInputValidator.INVALID_DISCOUNT, validator.validate("JAKR", "9/3/15", 5, -1));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_TYPE, validator.validate("HAMR", "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_TYPE, validator.validate("JA", "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_TYPE, validator.validate(null, "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_BRAND, validator.validate("JAKX", "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_BRAND, validator.validate("JAKRR", "9/3/15", 5, 0));
+        assertEquals(RentalInputValidator.UNKNOWN_TOOL_BRAND, validator.validate("JAK", "9/3/15", 5, 0));
+
+        assertEquals(1, validator.getCount(RentalInputValidator.VALID));
+        assertEquals(2, validator.getCount(RentalInputValidator.INVALID_DISCOUNT));
+        assertEquals(3, validator.getCount(RentalInputValidator.UNKNOWN_TOOL_TYPE));
+        assertEquals(3, validator.getCount(RentalInputValidator.UNKNOWN_TOOL_BRAND));
+        assertEquals(9, validator.getRejectedCount());
+    }
+
+    @Test
+    void malformedDates() {
+        RentalInputValidator validator = new RentalInputValidator();
+        String[] malformed = {"", "7/2", "7-2-20", "7/2/2020", "13/1/20", "0/1/20", "2/30/20", "2/29/21", "a/2/20",
+                "7//20", null};
+        for (String date : malformed) {
+            assertEquals(RentalInputValidator.MALFORMED_DATE, validator.validate("LADW", date, 3, 10), date);
+        }
+        assertEquals(malformed.length, validator.getCount(RentalInputValidator.MALFORMED_DATE));
+        assertEquals(RentalInputValidator.VALID, validator.validate("LADW", "2/29/20", 3, 10));
+        assertEquals(RentalInputValidator.VALID, validator.validate("LADW", "01/03/00", 3, 10));
+    }
+
+    @Test
+    void onlyValidRowsArePriced() throws Exception {
+        RentalInputValidator validator = new RentalInputValidator();
+
+        assertNull(validator.quote("LADW", "7/2/20", 0, 10));
+        assertNull(validator.quote("LADX", "7/2/20", 3, 10));
+        RentalQuote quote = validator.quote("LADW", "7/2/20", 3, 10);
+        RentalQuote expected = new RentalQuote(3, "7/2/20", new Tool("LADW"), 10);
+        assertEquals(expected.getRentalQuoteOutput(), quote.getRentalQuoteOutput());
+        assertSame(quote.getTool(), validator.quote("LADW", "7/4/20", 1, 0).getTool());
+
+        assertEquals(2, validator.getCount(RentalInputValidator.VALID));
+        assertEquals(2, validator.getRejectedCount());
+    }
+
+    @Test
+    void throwingConstructorsUseSameChecks() {
+        try {
+            new Tool("LA");
+            fail();
+        } catch (Exception e) {
+            assertEquals("Invalid tool code entered: LA", e.getMessage());
+        }
+        try {
+            new RentalQuote(5, "9/3/15", new Tool("JAKR"), 101);
+            fail();
+        } catch (Exception e) {
+            assertEquals(RentalInputValidator.message(RentalInputValidator.INVALID_DISCOUNT), e.getMessage());
+        }
+    }
+
+    /**
+     * Dates that do not exist or do not use slashes are rejected by every constructor, with the validator's message
+     */
+    @Test
+    void throwingConstructorsRejectMalformedDates() throws Exception {
+        Tool ladder = new Tool("LADW");
+        String message = RentalInputValidator.message(RentalInputValidator.MALFORMED_DATE);
+        for (String date : new String[]{"2/30/20", "7-2-20", "2/29/21", "7/2/2020"}) {
+            try {
+                new RentalAgreement(3, date, ladder, 10);
+                fail(date);
+            } catch (Exception e) {
+                assertEquals(message, e.getMessage(), date);
+            }
+            try {
+                new RentalQuote(3, date, ladder, 10);
+                fail(date);
+            } catch (Exception e) {
+                assertEquals(message, e.getMessage(), date);
+            }
+            try {
+                new RentalOrder(3, date, Collections.singletonList(ladder), 10);
+                fail(date);
+            } catch (Exception e) {
+                assertEquals(message, e.getMessage(), date);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package GenericStoreTests;
+
+import GenericStore.EpochDayUtil;
+import GenericStore.PricingPolicy;
+import GenericStore.RentalAgreement;
+import GenericStore.RentalItinerary;
+import GenericStore.Tool;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+final class RentalItineraryTest {
+
+    private Tool[] tools;
+
+    @BeforeAll
+    void createObjects() throws Exception {
+        tools = new Tool[]{new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR"), new Tool("JAKD")};
+    }
+
+    /**
+     * Walk doc scenario 3 (chainsaw from 7/2/15 for 5 days) day by day
+     */
+    @Test
+    void classifyDays() throws Exception {
+        Tool chainsaw = tools[1];
+        RentalItinerary itinerary = new RentalItinerary(PricingPolicy.DEFAULT, EpochDayUtil.parse("7/2/15"), 5,
+                chainsaw);
+        int[] expectedClasses = {RentalItinerary.JULY_FOURTH, RentalItinerary.WEEKEND, RentalItinerary.WEEKEND,
+                RentalItinerary.WEEKDAY, RentalItinerary.WEEKDAY};
+        boolean[] expectedCharged = {true, false, false, true, true};
+
+        for (int i = 0; i < expectedClasses.length; i++) {
+            assertTrue(itinerary.next());
+            assertEquals(EpochDayUtil.parse("7/3/15") + i, itinerary.getEpochDay());
+            assertEquals(expectedClasses[i], itinerary.getDayClass());
+            assertEquals(expectedCharged[i], itinerary.isCharged());
+        }
+        assertFalse(itinerary.next());
+
+        itinerary.reset();
+        assertEquals(new RentalAgreement(5, "7/2/15", chainsaw, 25).getChargeableDays(), chargedDays(itinerary));
+    }
+
+    /**
+     * Labor Day and rentals crossing into the next year
+     */
+    @Test
+    void laborDayAndNewYear() {
+        //Labor Day 2015 was 9/7/15
+        RentalItinerary itinerary = new RentalItinerary(PricingPolicy.DEFAULT, EpochDayUtil.parse("9/6/15"), 1,
+                tools[2]);
+        assertTrue(itinerary.next());
+        assertEquals(RentalItinerary.LABOR_DAY, itinerary.getDayClass());
+        assertFalse(itinerary.isCharged());
+
+        //12/31/20 to 7/6/21, July 4th 2021 is observed on Monday 7/5/21
+        itinerary = new RentalItinerary(PricingPolicy.DEFAULT, EpochDayUtil.parse("12/31/20"), 187, tools[1]);
+        int holidays = 0;
+        while (itinerary.next()) {
+            if (itinerary.getDayClass() == RentalItinerary.JULY_FOURTH) {
+                assertEquals(EpochDayUtil.parse("7/5/21"), itinerary.getEpochDay());
+                holidays++;
+            }
+        }
+        assertEquals(1, holidays);
+    }
+
+    /**
+     * The charged days of every checkout date from 2000 through 2099 with rental lengths 1-60 and every tool should
+     * add up to the chargeable days the agreement calculates
+     */
+    @Test
+    void chargedDaysMatchChargeableDays() {
+        int firstDay = EpochDayUtil.epochDay(2000, 1, 1);
+        int lastDay = EpochDayUtil.epochDay(2100, 1, 1);
+        for (int checkoutDay = firstDay; checkoutDay < lastDay; checkoutDay++) {
+            for (Tool tool : tools) {
+                for (int rentalDays = 1; rentalDays <= 60; rentalDays++) {
+                    RentalItinerary itinerary = new RentalItinerary(PricingPolicy.DEFAULT, checkoutDay, rentalDays,
+                            tool);
+                    int expected = PricingPolicy.DEFAULT.chargeableDays(checkoutDay, rentalDays, tool);
+                    if (chargedDays(itinerary) != expected) {
+                        fail(tool.getToolCode() + " checkout " + EpochDayUtil.format(checkoutDay) + ", rental days "
+                                + rentalDays + ": expected " + expected + " charged days");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the invoice lines of doc scenario 2 (ladder from 7/2/20 for 3 days)
+     */
+    @Test
+    void invoiceLines() throws Exception {
+        List<String> lines = RentalItinerary.invoiceLines(PricingPolicy.DEFAULT, EpochDayUtil.parse("7/2/20"), 3,
+                tools[0]).collect(Collectors.toList());
+
+        assertEquals(3, lines.size());
+        assertEquals("Fri 7/3/20 Independence Day: no charge", lines.get(0));
+        assertEquals("Sat 7/4/20 Weekend: $1.99", lines.get(1));
+        assertEquals("Sun 7/5/20 Weekend: $1.99", lines.get(2));
+
+        //only the lines that are used get built
+        assertEquals("Mon 1/3/00 Weekday: $2.99",
+                RentalItinerary.invoiceLines(PricingPolicy.DEFAULT, EpochDayUtil.parse("1/2/00"), 1000, tools[2])
+                        .findFirst().get());
+    }
+
+    private static int chargedDays(RentalItinerary itinerary) {
+        int charged = 0;
+        while (itinerary.next()) {
+            if (itinerary.isCharged()) {
+                charged++;
+            }
+        }
+        return charged;
+    }
+}
@@ -0,0 +1,75 @@
+package GenericStoreTests;
+
+import GenericStore.RentalAgreement;
+import GenericStore.RentalOrder;
+import GenericStore.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RentalOrderTest {
+
+    /**
+     * A ladder, a chainsaw and two jackhammers from Thursday 7/2/20 to Monday 7/6/20, over the observed July 4th
+     * (Friday) and a weekend
+     */
+    @Test
+    void orderOfFourTools() throws Exception {
+        RentalOrder order = new RentalOrder(4, "7/2/20",
+                Arrays.asList(new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR"), new Tool("JAKD")), 10);
+
+        assertEquals("7/6/20", order.getReturnDate());
+        assertEquals(2, order.getWeekendDays());
+        assertEquals(1, order.getHolidays());
+        assertEquals(4, order.getLineItems().size());
+        for (RentalOrder.LineItem item : order.getLineItems()) {
+            RentalAgreement single = new RentalAgreement(4, "7/2/20", item.getTool(), 0);
+            assertEquals(single.getChargeableDays(), item.getChargeableDays());
+            assertEquals(Math.round(single.getPreDiscountCharge() * 100), item.getPreDiscountChargeCents());
+        }
+        //5.97 + 2.98 + 2.99 + 2.99
+        assertEquals(1493, order.getPreDiscountChargeCents());
+        assertEquals(149, order.getDiscountAmountCents());
+        assertEquals(1344, order.getFinalChargeCents());
+    }
+
+    @Test
+    void orderOutput() throws Exception {
+        RentalOrder order = new RentalOrder(4, "7/2/20", Arrays.asList(new Tool("LADW"), new Tool("JAKR")), 0);
+
+        assertEquals("Rental days: 4\nCheckout date: 7/2/20\nDue date: 7/6/20"
+                + "\n\nTool code: LADW\nTool type: Ladder\nTool brand: Werner\nDaily rental charge: $1.99"
+                + "\nCharge days: 3\nPre-discount charge: $5.97"
+                + "\n\nTool code: JAKR\nTool type: Jackhammer\nTool brand: Ridgid\nDaily rental charge: $2.99"
+                + "\nCharge days: 1\nPre-discount charge: $2.99"
+                + "\n\nOrder pre-discount charge: $8.96\nDiscount percent: 0%\nDiscount amount: $0"
+                + "\nFinal charge: $8.96", order.getRentalOrderOutput());
+    }
+
+    @Test
+    void invalidOrder() {
+        try {
+            new RentalOrder(4, "7/2/20", Collections.emptyList(), 0);
+            fail();
+        } catch (Exception e) {
+            assertEquals("An order must contain at least one tool.", e.getMessage());
+        }
+
+        try {
+            new RentalOrder(0, "7/2/20", Collections.singletonList(new Tool("LADW")), 0);
+            fail();
+        } catch (Exception e) {
+            assertEquals("Rental days must be greater than 0.", e.getMessage());
+        }
+
+        try {
+            new RentalOrder(4, "7/2/20", Collections.singletonList(new Tool("LADW")), 101);
+            fail();
+        } catch (Exception e) {
+            assertEquals("Discount percentage is out of the 0-100 range.", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package GenericStoreTests;
+
+import GenericStore.RentalAgreement;
+import GenericStore.RevenueAggregator;
+import GenericStore.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class RevenueAggregatorTest {
+
+    @Test
+    void recordAgreements() throws Exception {
+        RevenueAggregator aggregator = new RevenueAggregator();
+        Tool ladder = new Tool("LADW");
+        Tool jackhammer = new Tool("JAKR");
+        aggregator.record(new RentalAgreement(3, "7/2/20", ladder, 10));
+        aggregator.record(new RentalAgreement(6, "7/2/20", jackhammer, 50));
+
+        RevenueAggregator.Snapshot totals = aggregator.totals();
+        assertEquals(358, totals.get(RevenueAggregator.FINAL_CHARGE_CENTS, ladder.getTypeIndex(), ladder.getBrandIndex()));
+        assertEquals(40, totals.get(RevenueAggregator.DISCOUNT_CENTS, ladder.getTypeIndex(), ladder.getBrandIndex()));
+        assertEquals(448, totals.getByType(RevenueAggregator.FINAL_CHARGE_CENTS, jackhammer.getTypeIndex()));
+        assertEquals(448, totals.getByBrand(RevenueAggregator.FINAL_CHARGE_CENTS, jackhammer.getBrandIndex()));
+        assertEquals(9, totals.getTotal(RevenueAggregator.RENTAL_DAYS));
+        assertEquals(2, totals.getTotal(RevenueAggregator.AGREEMENTS));
+    }
+
+    @Test
+    void minuteWindows() throws Exception {
+        AtomicLong now = new AtomicLong(10 * 60_000);
+        RevenueAggregator aggregator = new RevenueAggregator(3, now::get);
+        Tool chainsaw = new Tool("CHNS");
+        aggregator.record(chainsaw, 2, 0, 298);
+        now.addAndGet(60_000);
+        aggregator.record(chainsaw, 1, 0, 149);
+        aggregator.record(chainsaw, 1, 0, 149);
+
+        List<RevenueAggregator.Snapshot> minutes = aggregator.recentMinutes(3);
+        assertEquals(3, minutes.size());
+        assertEquals(9, minutes.get(0).getMinute());
+        assertEquals(0, minutes.get(0).getTotal(RevenueAggregator.AGREEMENTS));
+        assertEquals(298, minutes.get(1).getTotal(RevenueAggregator.FINAL_CHARGE_CENTS));
+        assertEquals(2, minutes.get(2).getTotal(RevenueAggregator.AGREEMENTS));
+
+        //the window of minute 10 is reused for minute 13
+        now.addAndGet(3 * 60_000);
+        aggregator.record(chainsaw, 3, 0, 447);
+        minutes = aggregator.recentMinutes(3);
+        assertEquals(0, minutes.get(0).getTotal(RevenueAggregator.AGREEMENTS));
+        assertEquals(0, minutes.get(1).getTotal(RevenueAggregator.AGREEMENTS));
+        assertEquals(447, minutes.get(2).getTotal(RevenueAggregator.FINAL_CHARGE_CENTS));
+        assertEquals(1043, aggregator.totals().getTotal(RevenueAggregator.FINAL_CHARGE_CENTS));
+    }
+
+    @Test
+    void concurrentRecording() throws Exception {
+        RevenueAggregator aggregator = new RevenueAggregator();
+        Tool[] tools = {new Tool("LADW"), new Tool("CHNS"), new Tool("JAKR"), new Tool("JAKD")};
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            Tool tool = tools[t % tools.length];
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    aggregator.record(tool, 2, 1, 10);
+                    //every snapshot holds whole records only
+                    if (i % 5_000 == 0) {
+                        RevenueAggregator.Snapshot snapshot = aggregator.totals();
+                        long count = snapshot.getTotal(RevenueAggregator.AGREEMENTS);
+                        if (snapshot.getTotal(RevenueAggregator.FINAL_CHARGE_CENTS) != count * 10
+                                || snapshot.getTotal(RevenueAggregator.RENTAL_DAYS) != count * 2) {
+                            torn.set(true);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertFalse(torn.get());
+        RevenueAggregator.Snapshot totals = aggregator.totals();
+        assertEquals(400_000, totals.getTotal(RevenueAggregator.AGREEMENTS));
+        assertEquals(4_000_000, totals.getTotal(RevenueAggregator.FINAL_CHARGE_CENTS));
+        assertEquals(400_000, totals.getTotal(RevenueAggregator.DISCOUNT_CENTS));
+        assertEquals(100_000, totals.getByType(RevenueAggregator.AGREEMENTS, tools[1].getTypeIndex()));
+    }
+}
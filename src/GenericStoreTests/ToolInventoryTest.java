@@ -0,0 +1,217 @@
+package GenericStoreTests;
+
+import GenericStore.ToolInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+final class ToolInventoryTest {
+
+    /**
+     * Book overlapping periods until every unit is taken
+     */
+    @Test
+    void reserveOverlappingPeriods() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        assertEquals(3, inventory.addUnits("LADW", 3));
+
+        assertEquals(0, inventory.reserve("LADW", "7/2/24", 5));
+        assertEquals(1, inventory.reserve("LADW", "7/2/24", 5));
+        assertEquals(2, inventory.reserve("LADW", "7/4/24", 5));
+        //all 3 units are out on 7/4/24
+        assertEquals(-1, inventory.reserve("LADW", "7/4/24", 5));
+        assertEquals(-1, inventory.firstAvailableUnit("LADW", "7/4/24", 1));
+
+        //units 0 and 1 are returned on 7/7/24
+        assertEquals(0, inventory.firstAvailableUnit("LADW", "7/7/24", 3));
+        assertFalse(inventory.isAvailable("LADW", 2, "7/7/24", 3));
+    }
+
+    /**
+     * Check that gaps before and between existing bookings are found
+     */
+    @Test
+    void findGapBetweenBookings() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("CHNS", 2);
+        inventory.reserve("CHNS", "7/2/24", 5);
+        inventory.reserve("CHNS", "7/2/24", 5);
+        inventory.reserve("CHNS", "7/20/24", 5);
+        inventory.reserve("CHNS", "7/20/24", 5);
+
+        //6/25/24 + 7 days is returned on the morning of 7/2/24
+        assertEquals(0, inventory.firstAvailableUnit("CHNS", "6/25/24", 7));
+        assertEquals(-1, inventory.firstAvailableUnit("CHNS", "6/25/24", 8));
+        //both units are out from 7/2/24 to 7/7/24 and again from 7/20/24
+        assertEquals(0, inventory.firstAvailableUnit("CHNS", "7/7/24", 13));
+        assertEquals(-1, inventory.firstAvailableUnit("CHNS", "7/7/24", 14));
+        assertEquals(0, inventory.firstAvailableUnit("CHNS", "7/25/24", 30));
+    }
+
+    /**
+     * Every unit is out on 7/10/24, even though all of them are free before and after
+     */
+    @Test
+    void everyUnitBusy() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("LADW", 1000);
+        for (int unit = 0; unit < 1000; unit++) {
+            //checkouts from 7/1/24 to 7/9/24 for 10 days all overlap on 7/10/24, the same again in August
+            assertEquals(unit, inventory.reserve("LADW", "7/" + (1 + unit % 9) + "/24", 10));
+            assertEquals(unit, inventory.reserve("LADW", "8/" + (1 + unit % 9) + "/24", 10));
+        }
+
+        assertEquals(-1, inventory.firstAvailableUnit("LADW", "7/10/24", 1));
+        //the root already rules out every unit, although all of them have a free gap in between
+        assertEquals(1, inventory.getLastSearchNodeCount("LADW"));
+        assertEquals(-1, inventory.reserve("LADW", "7/10/24", 1));
+        //units checked out on 7/1/24 are returned on 7/11/24
+        assertEquals(0, inventory.firstAvailableUnit("LADW", "7/11/24", 5));
+        assertEquals(0, inventory.firstAvailableUnit("LADW", "6/1/24", 30));
+    }
+
+    /**
+     * Searches should test one node per level of the tree (1024 leaves for 1000 units), wherever the free unit is
+     */
+    @Test
+    void searchTestsOneNodePerLevel() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("CHNS", 1000);
+        SplittableRandom random = new SplittableRandom(261);
+        for (int i = 0; i < 20_000; i++) {
+            String checkoutDate = (6 + random.nextInt(3)) + "/" + (1 + random.nextInt(28)) + "/24";
+            int rentalDays = 1 + random.nextInt(14);
+            inventory.reserve("CHNS", checkoutDate, rentalDays);
+            assertTrue(inventory.getLastSearchNodeCount("CHNS") <= 11,
+                    "tested " + inventory.getLastSearchNodeCount("CHNS") + " nodes");
+        }
+    }
+
+    /**
+     * A gap between the bookings of a low unit is preferred over an unbooked higher unit
+     */
+    @Test
+    void gapInLowUnit() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("CHNS", 3);
+        assertEquals(0, inventory.reserve("CHNS", "7/1/24", 5));
+        assertEquals(1, inventory.reserve("CHNS", "7/1/24", 5));
+        assertTrue(inventory.release("CHNS", 1, "7/1/24"));
+        assertEquals(0, inventory.reserve("CHNS", "7/20/24", 5));
+
+        //unit 0 is free from 7/6/24 to 7/20/24, unit 1 and 2 have no bookings
+        assertEquals(0, inventory.firstAvailableUnit("CHNS", "7/6/24", 14));
+        assertEquals(0, inventory.reserve("CHNS", "7/10/24", 3));
+        assertEquals(1, inventory.firstAvailableUnit("CHNS", "7/6/24", 14));
+        //the rest of the gap in unit 0
+        assertEquals(0, inventory.reserve("CHNS", "7/6/24", 4));
+        assertEquals(0, inventory.reserve("CHNS", "7/13/24", 7));
+        assertEquals(1, inventory.firstAvailableUnit("CHNS", "7/19/24", 1));
+    }
+
+    /**
+     * Compare random bookings against checking every unit in order, adding units half way through
+     */
+    @Test
+    void lowestUnitMatchesScan() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("JAKR", 30);
+        SplittableRandom random = new SplittableRandom(26);
+        for (int i = 0; i < 5_000; i++) {
+            if (i == 2_500) {
+                inventory.addUnits("JAKR", 20);
+            }
+            int units = inventory.getUnitCount("JAKR");
+            String checkoutDate = "7/" + (1 + random.nextInt(31)) + "/24";
+            int rentalDays = 1 + random.nextInt(10);
+            int expected = -1;
+            for (int unit = 0; unit < units && expected < 0; unit++) {
+                if (inventory.isAvailable("JAKR", unit, checkoutDate, rentalDays)) {
+                    expected = unit;
+                }
+            }
+            assertEquals(expected, inventory.firstAvailableUnit("JAKR", checkoutDate, rentalDays));
+            if (i % 4 == 3) {
+                inventory.release("JAKR", random.nextInt(units), checkoutDate);
+            } else {
+                assertEquals(expected, inventory.reserve("JAKR", checkoutDate, rentalDays));
+            }
+        }
+    }
+
+    /**
+     * Release a booking and check the unit can be booked again
+     */
+    @Test
+    void releaseBooking() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("JAKR", 2);
+        inventory.reserve("JAKR", "9/1/10", 10);
+        inventory.reserve("JAKR", "9/1/10", 10);
+
+        assertTrue(inventory.release("JAKR", 1, "9/1/10"));
+        assertFalse(inventory.release("JAKR", 1, "9/1/10"));
+        assertEquals(1, inventory.reserve("JAKR", "9/5/10", 2));
+    }
+
+    /**
+     * Units added after bookings were made should be found by the search
+     */
+    @Test
+    void addUnitsAfterBooking() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        inventory.addUnits("JAKD", 1);
+        inventory.reserve("JAKD", "2/1/10", 3);
+        assertEquals(-1, inventory.firstAvailableUnit("JAKD", "2/2/10", 1));
+
+        assertEquals(20001, inventory.addUnits("JAKD", 20000));
+        assertEquals(1, inventory.reserve("JAKD", "2/2/10", 1));
+        assertEquals(20001, inventory.getUnitCount("JAKD"));
+    }
+
+    @Test
+    void invalidInventoryInput() throws Exception {
+        ToolInventory inventory = new ToolInventory();
+        try {
+            inventory.addUnits("ABCD", 1);
+            fail();
+        } catch (Exception e) {
+            assertEquals("Invalid tool code entered: ABCD", e.getMessage());
+        }
+
+        try {
+            inventory.addUnits("LADW", 0);
+            fail();
+        } catch (Exception e) {
+            assertEquals("Unit count must be greater than 0.", e.getMessage());
+        }
+
+        assertEquals(-1, inventory.reserve("LADW", "7/2/24", 5));
+        assertEquals(0, inventory.getUnitCount("LADW"));
+
+        inventory.addUnits("LADW", 1);
+        for (int rentalDays : new int[]{0, -3}) {
+            try {
+                inventory.reserve("LADW", "7/2/24", rentalDays);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("Rental days must be greater than 0.", e.getMessage());
+            }
+            try {
+                inventory.firstAvailableUnit("LADW", "7/2/24", rentalDays);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("Rental days must be greater than 0.", e.getMessage());
+            }
+            try {
+                inventory.isAvailable("LADW", 0, "7/2/24", rentalDays);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("Rental days must be greater than 0.", e.getMessage());
+            }
+        }
+        assertEquals(0, inventory.reserve("LADW", "7/2/24", 1));
+    }
+}
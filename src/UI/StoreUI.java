@@ -1,8 +1,12 @@
 package UI;
 
+import GenericStore.CheckoutJournal;
+import GenericStore.PricingPolicyWatcher;
 import GenericStore.RentalAgreement;
+import GenericStore.RevenueAggregator;
 import GenericStore.Tool;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -12,10 +16,17 @@ import javafx.scene.control.*;
 import javafx.stage.Stage;
 import javafx.util.StringConverter;
 
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * UI for the program. Not necessary, but it felt a lot easier for inputting values for field testing
@@ -28,6 +39,21 @@ public class StoreUI extends Application implements Initializable {
     private final String dateError = "Please select a checkout date.";
     private final String rentalError = "Please input a number of rental days greater than 0.";
     private final String discountError = "Please input a discount percentage between 0-100";
+    private final String journalError = "This agreement could not be saved to " + journalFile + ".";
+    private final String journalPending = "Saving this agreement to " + journalFile + "...";
+    private final String journalSaved = "This agreement was saved to " + journalFile + ".";
+
+    //Every generated agreement is recorded here
+    private static final String journalFile = "checkouts.journal";
+    private CheckoutJournal journal;
+    //Records wait until they are on disk, so they are written here instead of on the JavaFX thread.
+    //Created with the journal, so only the controller has one
+    private ExecutorService journalWriter;
+    //Rates and holidays are reloaded from here when the file exists
+    private static final String policyFile = "pricing.properties";
+    private PricingPolicyWatcher policyWatcher;
+    //Totals of every generated agreement, shown under each new agreement. Created with the journal
+    private RevenueAggregator revenue;
 
 
     @FXML
@@ -43,13 +69,18 @@ public class StoreUI extends Application implements Initializable {
 
     private final Alert alert = new Alert(Alert.AlertType.ERROR);
 
+    //The controller created by the FXMLLoader, which owns the journal and the policy watcher
+    private StoreUI controller;
+
     public static void main(String[] args) {
         Application.launch(args);
     }
 
     @Override
     public void start(Stage primaryStage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("StoreUI.fxml"));
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("StoreUI.fxml"));
+        Parent root = loader.load();
+        controller = loader.getController();
         Scene scene = new Scene(root);
         primaryStage.setTitle("Generic Hardware Store");
         primaryStage.setScene(scene);
@@ -57,6 +88,13 @@ public class StoreUI extends Application implements Initializable {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() throws Exception {
+        if (controller != null) {
+            controller.close();
+        }
+    }
+
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -81,6 +119,26 @@ public class StoreUI extends Application implements Initializable {
             }
         );
         checkout.setOnAction(event -> checkout());
+        revenue = new RevenueAggregator();
+        try {
+            journal = new CheckoutJournal(Paths.get(journalFile), 2);
+            journalWriter = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "checkout-journal-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } catch (IOException e) {
+            //Agreements are still shown, each one will note that it was not saved
+            journal = null;
+        }
+        if (Files.exists(Paths.get(policyFile))) {
+            try {
+                policyWatcher = new PricingPolicyWatcher(Paths.get(policyFile));
+            } catch (Exception e) {
+                //Prices stay at PricingPolicy.DEFAULT
+                policyWatcher = null;
+            }
+        }
     }
 
     /**
@@ -148,16 +206,91 @@ public class StoreUI extends Application implements Initializable {
         try{
             Tool tool = new Tool(toolCode);
             RentalAgreement agreement = new RentalAgreement(rentalDays, date, tool, discountPercent);
-
-            alert.setAlertType(Alert.AlertType.INFORMATION);
-            alert.setHeaderText("Rental Agreement");
-            alert.setTitle("Generated Rental Agreement");
-            alert.contentTextProperty().set(agreement.getRentalAgreementOutput());
-            alert.show();
+            revenue.record(agreement);
+            String output = agreement.getRentalAgreementOutput() + "\n\n" + revenueSummary();
+            if (journal == null) {
+                showAgreement(output + "\n\n" + journalError);
+            } else {
+                String pending = output + "\n\n" + journalPending;
+                showAgreement(pending);
+                recordAgreement(agreement, output, pending);
+            }
         } catch (Exception e){
             //Cannot happen due to error catching above and user input restrictions.
             //Unit testing for RentalAgreement tests tests this exception throw
         }
 
     }
+
+    /**
+     * Describes the agreements generated in the last hour and since start up
+     * @return - String of agreement counts and final charges
+     */
+    private String revenueSummary(){
+        long hourAgreements = 0;
+        long hourCents = 0;
+        List<RevenueAggregator.Snapshot> minutes = revenue.recentMinutes(60);
+        for (RevenueAggregator.Snapshot minute : minutes) {
+            hourAgreements += minute.getTotal(RevenueAggregator.AGREEMENTS);
+            hourCents += minute.getTotal(RevenueAggregator.FINAL_CHARGE_CENTS);
+        }
+        RevenueAggregator.Snapshot totals = revenue.totals();
+        return String.format("Last hour: %d agreements, $%,.2f\nSince start up: %d agreements, $%,.2f",
+                hourAgreements, hourCents / 100.0,
+                totals.getTotal(RevenueAggregator.AGREEMENTS),
+                totals.getTotal(RevenueAggregator.FINAL_CHARGE_CENTS) / 100.0);
+    }
+
+    /**
+     * Shows an agreement to the user in a dialog
+     * @param output - agreement text and its journal status
+     */
+    private void showAgreement(String output){
+        alert.setAlertType(Alert.AlertType.INFORMATION);
+        alert.setHeaderText("Rental Agreement");
+        alert.setTitle("Generated Rental Agreement");
+        alert.contentTextProperty().set(output);
+        alert.show();
+    }
+
+    /**
+     * Records the agreement in the checkout journal on the journal writer thread. Once the record is on disk, or
+     * failed, the dialog is updated on the JavaFX thread, unless it shows another agreement by then
+     * @param agreement - agreement that was generated
+     * @param output - agreement text
+     * @param pending - text shown while the agreement is being saved
+     */
+    private void recordAgreement(RentalAgreement agreement, String output, String pending){
+        journalWriter.execute(() -> {
+            String status;
+            try{
+                journal.record(agreement);
+                status = journalSaved;
+            } catch (IOException e){
+                status = journalError;
+            }
+            String result = output + "\n\n" + status;
+            Platform.runLater(() -> {
+                if(pending.equals(alert.getContentText())){
+                    alert.contentTextProperty().set(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * Waits for agreements still being saved, then closes the journal and stops watching the policy file
+     */
+    private void close() throws Exception {
+        if (journalWriter != null) {
+            journalWriter.shutdown();
+            journalWriter.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (policyWatcher != null) {
+            policyWatcher.close();
+        }
+    }
 }